@@ -47,7 +47,8 @@ public class ServerUtils extends JavaPlugin {
     public void onDisable() {
         super.onDisable();
         restoreBukkitPluginCommand();
-        RCraftServer.syncCommands(Collections.emptySet());
+        // The scheduler no longer accepts tasks from us, so sync the restored command and any pending sync right away
+        BukkitPluginManager.get().getCommandSyncCoordinator().syncNow(Collections.singleton("plugins"));
         plugin.disable();
     }
 
@@ -1,6 +1,7 @@
 package net.frankheijden.serverutils.bukkit.entities;
 
 import java.io.File;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 import net.frankheijden.serverutils.common.entities.ServerUtilsPluginDescription;
@@ -20,7 +21,7 @@ public class BukkitPluginDescription implements ServerUtilsPluginDescription {
         this.descriptionFile = descriptionFile;
         this.file = file;
         this.author = String.join(", ", this.descriptionFile.getAuthors());
-        this.dependencies = new HashSet<>(descriptionFile.getDepend());
+        this.dependencies = Collections.unmodifiableSet(new HashSet<>(descriptionFile.getDepend()));
     }
 
     @Override
@@ -56,4 +57,16 @@ public class BukkitPluginDescription implements ServerUtilsPluginDescription {
     public PluginDescriptionFile getDescriptionFile() {
         return descriptionFile;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return getId().equals(((BukkitPluginDescription) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return getId().hashCode();
+    }
 }
@@ -2,11 +2,13 @@ package net.frankheijden.serverutils.bukkit.listeners;
 
 import net.frankheijden.serverutils.bukkit.entities.BukkitAudience;
 import net.frankheijden.serverutils.bukkit.entities.BukkitPlugin;
+import net.frankheijden.serverutils.bukkit.managers.BukkitPluginManager;
 import net.frankheijden.serverutils.common.listeners.PlayerListener;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.plugin.Plugin;
 
 public class BukkitPlayerListener
@@ -24,6 +26,12 @@ public class BukkitPlayerListener
      */
     @EventHandler(priority = EventPriority.MONITOR)
     public void onPlayerJoin(PlayerJoinEvent event) {
+        BukkitPluginManager.get().getCommandUpdateDispatcher().forget(event.getPlayer());
         handleUpdate(plugin.getChatProvider().get(event.getPlayer()));
     }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        BukkitPluginManager.get().getCommandUpdateDispatcher().forget(event.getPlayer());
+    }
 }
@@ -1,7 +1,10 @@
 package net.frankheijden.serverutils.bukkit.managers;
 
+import java.io.ByteArrayInputStream;
 import java.io.Closeable;
 import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -9,6 +12,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -33,7 +37,11 @@ import net.frankheijden.serverutils.common.entities.results.PluginResults;
 import net.frankheijden.serverutils.common.entities.results.Result;
 import net.frankheijden.serverutils.common.entities.exceptions.InvalidPluginDescriptionException;
 import net.frankheijden.serverutils.common.events.PluginEvent;
+import net.frankheijden.serverutils.common.jfr.LifecycleEvents;
 import net.frankheijden.serverutils.common.managers.AbstractPluginManager;
+import net.frankheijden.serverutils.common.utils.LifecycleTimings;
+import net.frankheijden.serverutils.common.utils.PluginFootprints;
+import net.frankheijden.serverutils.common.utils.ZipCentralDirectory;
 import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
 import org.bukkit.command.PluginCommand;
@@ -41,13 +49,19 @@ import org.bukkit.command.PluginIdentifiableCommand;
 import org.bukkit.plugin.InvalidDescriptionException;
 import org.bukkit.plugin.InvalidPluginException;
 import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginDescriptionFile;
 import org.bukkit.plugin.PluginLoader;
 import org.bukkit.plugin.PluginManager;
 import org.bukkit.plugin.UnknownDependencyException;
+import org.bukkit.plugin.java.JavaPluginLoader;
 
 public class BukkitPluginManager extends AbstractPluginManager<Plugin, BukkitPluginDescription> {
 
     private static BukkitPluginManager instance;
+    private static final PluginCommandIndex commandIndex = new PluginCommandIndex();
+
+    private CommandSyncCoordinator commandSyncCoordinator;
+    private CommandUpdateDispatcher commandUpdateDispatcher;
 
     public BukkitPluginManager() {
         instance = this;
@@ -57,15 +71,38 @@ public class BukkitPluginManager extends AbstractPluginManager<Plugin, BukkitPlu
         return instance;
     }
 
+    /**
+     * Retrieves the coordinator through which command tree syncs are requested.
+     */
+    public synchronized CommandSyncCoordinator getCommandSyncCoordinator() {
+        if (commandSyncCoordinator == null) {
+            commandSyncCoordinator = new CommandSyncCoordinator(getTimings(), getCommandUpdateDispatcher());
+        }
+        return commandSyncCoordinator;
+    }
+
+    /**
+     * Retrieves the dispatcher which spreads command tree updates of online players over multiple ticks.
+     */
+    public synchronized CommandUpdateDispatcher getCommandUpdateDispatcher() {
+        if (commandUpdateDispatcher == null) {
+            commandUpdateDispatcher = new CommandUpdateDispatcher();
+        }
+        return commandUpdateDispatcher;
+    }
+
     @Override
     public PluginResults<Plugin> loadPluginDescriptions(List<BukkitPluginDescription> descriptions) {
         PluginResults<Plugin> pluginResults = new PluginResults<>();
+        LifecycleTimings timings = getTimings();
 
         List<Plugin> plugins = new ArrayList<>();
         for (BukkitPluginDescription description : descriptions) {
             String pluginId = description.getId();
 
-            Plugin plugin;
+            Plugin plugin = null;
+            PluginFootprints.LoadSample sample = getFootprints().beginLoad();
+            long start = System.nanoTime();
             try {
                 plugin = Bukkit.getPluginManager().loadPlugin(description.getFile());
             } catch (InvalidDescriptionException ex) {
@@ -83,8 +120,15 @@ public class BukkitPluginManager extends AbstractPluginManager<Plugin, BukkitPlu
                 }
                 ex.printStackTrace();
                 return pluginResults.addResult(pluginId, Result.ERROR);
+            } finally {
+                getFootprints().endLoad(
+                        sample,
+                        plugin == null ? Collections.emptySet() : Collections.singleton(pluginId)
+                );
             }
 
+            timings.record(pluginId, "load", System.nanoTime() - start);
+
             if (plugin == null) return pluginResults.addResult(pluginId, Result.INVALID_PLUGIN);
             plugins.add(plugin);
             Bukkit.getPluginManager().callEvent(new BukkitPluginLoadEvent(plugin, PluginEvent.Stage.PRE));
@@ -93,7 +137,7 @@ public class BukkitPluginManager extends AbstractPluginManager<Plugin, BukkitPlu
         for (Plugin plugin : plugins) {
             String pluginId = getPluginId(plugin);
             try {
-                plugin.onLoad();
+                timings.time(pluginId, "on-load", plugin::onLoad);
             } catch (Throwable th) {
                 th.printStackTrace();
                 return pluginResults.addResult(pluginId, Result.ERROR);
@@ -103,105 +147,180 @@ public class BukkitPluginManager extends AbstractPluginManager<Plugin, BukkitPlu
             pluginResults.addResult(pluginId, plugin);
         }
 
+        Map<String, Command> knownCommands = getKnownCommands();
+        if (knownCommands != null) commandIndex.registered(knownCommands, Collections.emptySet());
         return pluginResults;
     }
 
     @Override
     public PluginResults<Plugin> disableOrderedPlugins(List<Plugin> plugins) {
         PluginResults<Plugin> disableResults = new PluginResults<>();
+        LifecycleTimings timings = getTimings();
 
+        Map<String, Map<String, Command>> commandsByPlugin = getPluginCommands(plugins);
         Set<String> removedCommands = new HashSet<>();
-        for (Plugin plugin : plugins) {
-            String pluginId = getPluginId(plugin);
-            if (!isPluginEnabled(pluginId)) return disableResults.addResult(pluginId, Result.ALREADY_DISABLED);
+        List<Plugin> disabledPlugins = new ArrayList<>(plugins.size());
+        try {
+            for (Plugin plugin : plugins) {
+                String pluginId = getPluginId(plugin);
+                if (!isPluginEnabled(pluginId)) return disableResults.addResult(pluginId, Result.ALREADY_DISABLED);
+
+                Bukkit.getPluginManager().callEvent(new BukkitPluginDisableEvent(plugin, PluginEvent.Stage.PRE));
+                Map<String, Command> pluginCommands = commandsByPlugin.get(plugin.getName());
+
+                try {
+                    timings.time(pluginId, "disable", () -> Bukkit.getPluginManager().disablePlugin(plugin));
+                } catch (Exception ex) {
+                    ex.printStackTrace();
+                    return disableResults.addResult(pluginId, Result.ERROR);
+                }
+                disabledPlugins.add(plugin);
 
-            Bukkit.getPluginManager().callEvent(new BukkitPluginDisableEvent(plugin, PluginEvent.Stage.PRE));
-            Map<String, ? extends Command> pluginCommands = getPluginCommands(plugin);
+                timings.time(pluginId, "unregister-commands", () -> unregisterCommands(pluginCommands));
+                removedCommands.addAll(pluginCommands.keySet());
+                Bukkit.getPluginManager().callEvent(new BukkitPluginDisableEvent(plugin, PluginEvent.Stage.POST));
 
-            try {
-                Bukkit.getPluginManager().disablePlugin(plugin);
-                RCraftingManager.removeRecipesFor(plugin);
-            } catch (Exception ex) {
-                ex.printStackTrace();
-                return disableResults.addResult(pluginId, Result.ERROR);
+                disableResults.addResult(pluginId, plugin);
             }
-
-            unregisterCommands(pluginCommands);
-            removedCommands.addAll(pluginCommands.keySet());
-            Bukkit.getPluginManager().callEvent(new BukkitPluginDisableEvent(plugin, PluginEvent.Stage.POST));
-
-            disableResults.addResult(pluginId, plugin);
+        } finally {
+            removeRecipes(disabledPlugins, disableResults);
         }
 
-        RCraftServer.syncCommands(removedCommands);
+        getCommandSyncCoordinator().requestSync(removedCommands);
         return disableResults;
     }
 
     @Override
     public CloseablePluginResults<Plugin> unloadOrderedPlugins(List<Plugin> plugins) {
         CloseablePluginResults<Plugin> unloadResults = new CloseablePluginResults<>();
+        LifecycleTimings timings = getTimings();
 
-        for (Plugin plugin : plugins) {
-            String pluginId = getPluginId(plugin);
-            Bukkit.getPluginManager().callEvent(new BukkitPluginUnloadEvent(plugin, PluginEvent.Stage.PRE));
-
-            RCraftingManager.removeRecipesFor(plugin);
-            unregisterCommands(plugin);
-
-            List<Closeable> closeables = new ArrayList<>();
-            try {
-                RSimplePluginManager.getPlugins(Bukkit.getPluginManager()).remove(plugin);
-                RSimplePluginManager.removeLookupName(Bukkit.getPluginManager(), pluginId);
-
-                ClassLoader classLoader = plugin.getClass().getClassLoader();
-                PluginLoader loader = RPluginClassLoader.getLoader(classLoader);
-                Map<String, Class<?>> classes = RPluginClassLoader.getClasses(classLoader);
-                RJavaPluginLoader.removeClasses(loader, classes.keySet());
+        List<Plugin> unloadedPlugins = new ArrayList<>(plugins.size());
+        try {
+            for (Plugin plugin : plugins) {
+                String pluginId = getPluginId(plugin);
+                Bukkit.getPluginManager().callEvent(new BukkitPluginUnloadEvent(plugin, PluginEvent.Stage.PRE));
+
+                timings.time(pluginId, "unregister-commands", () -> unregisterCommands(plugin));
+
+                List<Closeable> closeables = new ArrayList<>();
+                long start = System.nanoTime();
+                try {
+                    RSimplePluginManager.getPlugins(Bukkit.getPluginManager()).remove(plugin);
+                    RSimplePluginManager.removeLookupName(Bukkit.getPluginManager(), pluginId);
+
+                    ClassLoader classLoader = plugin.getClass().getClassLoader();
+                    PluginLoader loader = RPluginClassLoader.getLoader(classLoader);
+                    Map<String, Class<?>> classes = RPluginClassLoader.getClasses(classLoader);
+                    RJavaPluginLoader.removeClasses(loader, classes.keySet());
+
+                    RPluginClassLoader.clearClassLoader(classLoader);
+                    RJavaPlugin.clearJavaPlugin(plugin);
+
+                    addIfInstance(closeables, RPluginClassLoader.getLibraryLoader(classLoader));
+                    addIfInstance(closeables, classLoader);
+                } catch (Exception ex) {
+                    ex.printStackTrace();
+                    return unloadResults.addResult(pluginId, Result.ERROR);
+                }
+                timings.record(pluginId, "unload", System.nanoTime() - start);
 
-                RPluginClassLoader.clearClassLoader(classLoader);
-                RJavaPlugin.clearJavaPlugin(plugin);
+                Bukkit.getPluginManager().callEvent(new BukkitPluginUnloadEvent(plugin, PluginEvent.Stage.POST));
 
-                addIfInstance(closeables, RPluginClassLoader.getLibraryLoader(classLoader));
-                addIfInstance(closeables, classLoader);
-            } catch (Exception ex) {
-                ex.printStackTrace();
-                return unloadResults.addResult(pluginId, Result.ERROR);
+                unloadedPlugins.add(plugin);
+                unloadResults.addResult(pluginId, plugin, closeables);
             }
-
-            Bukkit.getPluginManager().callEvent(new BukkitPluginUnloadEvent(plugin, PluginEvent.Stage.POST));
-
-            unloadResults.addResult(pluginId, plugin, closeables);
+        } finally {
+            removeRecipes(unloadedPlugins, unloadResults);
         }
 
         return unloadResults;
     }
 
+    /**
+     * Removes the recipes of a batch of plugins in one pass.
+     * If this fails, an error is added to the results of the batch, unless it already failed.
+     */
+    private void removeRecipes(List<Plugin> plugins, PluginResults<Plugin> results) {
+        if (plugins.isEmpty()) return;
+
+        try {
+            getTimings().time(LifecycleTimings.ALL_PLUGINS, "remove-recipes", () -> LifecycleEvents.get().run(
+                    LifecycleEvents.Type.RECIPE_REMOVAL,
+                    plugins.stream().map(Plugin::getName).collect(Collectors.joining(", ")),
+                    () -> RCraftingManager.removeRecipesFor(plugins)
+            ));
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            if (results.isSuccess()) results.addResult(getPluginId(plugins.get(plugins.size() - 1)), Result.ERROR);
+        }
+    }
+
     private static void addIfInstance(List<Closeable> list, Object obj) {
         if (obj instanceof Closeable) {
             list.add((Closeable) obj);
         }
     }
 
+    @Override
+    protected long getLoadedClassCount(ClassLoader loader) {
+        if (!RPluginClassLoader.getReflection().getClazz().isInstance(loader)) return PluginFootprints.UNKNOWN;
+        return RPluginClassLoader.getClasses(loader).size();
+    }
+
     @Override
     protected PluginResults<Plugin> enableOrderedPlugins(List<Plugin> plugins) {
         PluginResults<Plugin> enableResults = new PluginResults<>();
         PluginManager bukkitPluginManager = Bukkit.getPluginManager();
+        LifecycleTimings timings = getTimings();
+        List<Plugin> enabledPlugins = new ArrayList<>(plugins.size());
         for (Plugin plugin : plugins) {
             String pluginId = getPluginId(plugin);
             bukkitPluginManager.callEvent(new BukkitPluginEnableEvent(plugin, PluginEvent.Stage.PRE));
-            bukkitPluginManager.enablePlugin(plugin);
+            timings.time(pluginId, "enable", () -> bukkitPluginManager.enablePlugin(plugin));
 
             if (!bukkitPluginManager.isPluginEnabled(plugin.getName())) {
                 return enableResults.addResult(pluginId, Result.ERROR);
             }
             bukkitPluginManager.callEvent(new BukkitPluginEnableEvent(plugin, PluginEvent.Stage.POST));
+            enabledPlugins.add(plugin);
             enableResults.addResult(pluginId, plugin);
         }
 
-        RCraftServer.syncCommands(Collections.emptySet());
+        Set<String> addedCommands = new HashSet<>();
+        Map<String, Command> knownCommands = getKnownCommands();
+        if (knownCommands != null) {
+            Set<String> labels = new HashSet<>();
+            enabledPlugins.forEach(plugin -> labels.addAll(getDeclaredCommandLabels(plugin, knownCommands)));
+            commandIndex.registered(knownCommands, labels);
+            getPluginCommands(enabledPlugins).values().forEach(commands -> addedCommands.addAll(commands.keySet()));
+        }
+        getCommandSyncCoordinator().requestSync(addedCommands);
         return enableResults;
     }
 
+    /**
+     * Retrieves the labels under which the commands of the plugin.yml of a plugin are registered when it is enabled,
+     * i.e. the name and aliases of each command, both with and without the plugin's fallback prefix.
+     */
+    private static Set<String> getDeclaredCommandLabels(Plugin plugin, Map<String, Command> knownCommands) {
+        String prefix = plugin.getDescription().getName().toLowerCase(Locale.ENGLISH).trim() + ":";
+        Set<String> labels = new HashSet<>();
+        for (String name : plugin.getDescription().getCommands().keySet()) {
+            String label = name.toLowerCase(Locale.ENGLISH).trim();
+            labels.add(label);
+            labels.add(prefix + label);
+
+            Command command = knownCommands.get(prefix + label);
+            if (command == null) continue;
+            for (String alias : command.getAliases()) {
+                labels.add(alias.toLowerCase(Locale.ENGLISH).trim());
+                labels.add(prefix + alias.toLowerCase(Locale.ENGLISH).trim());
+            }
+        }
+        return labels;
+    }
+
     @Override
     public boolean isPluginEnabled(String pluginId) {
         return Bukkit.getPluginManager().isPluginEnabled(pluginId);
@@ -223,24 +342,27 @@ public class BukkitPluginManager extends AbstractPluginManager<Plugin, BukkitPlu
     /**
      * Retrieves the commands associated to a plugin.
      */
+    @SuppressWarnings("unchecked")
     public static <C extends Command & PluginIdentifiableCommand> Map<String, C> getPluginCommands(Plugin plugin) {
-        Map<String, C> commands = new HashMap<>();
+        Map<String, Command> knownCommands = getKnownCommands();
+        if (knownCommands == null) return new HashMap<>();
+
+        return (Map<String, C>) (Map<String, ?>) commandIndex.get(knownCommands, plugin.getName());
+    }
+
+    /**
+     * Retrieves the commands associated to multiple plugins, keyed by plugin name.
+     */
+    public static Map<String, Map<String, Command>> getPluginCommands(Collection<? extends Plugin> plugins) {
+        List<String> pluginNames = plugins.stream().map(Plugin::getName).collect(Collectors.toList());
 
         Map<String, Command> knownCommands = getKnownCommands();
-        if (knownCommands == null) return commands;
-
-        for (Map.Entry<String, Command> entry : knownCommands.entrySet()) {
-            Command c = entry.getValue();
-            if (c instanceof PluginIdentifiableCommand) {
-                @SuppressWarnings("unchecked")
-                C pc = (C) c;
-                if (pc.getPlugin().getName().equals(plugin.getName())) {
-                    commands.put(entry.getKey(), pc);
-                }
-            }
+        if (knownCommands == null) {
+            Map<String, Map<String, Command>> commands = new HashMap<>();
+            pluginNames.forEach(pluginName -> commands.put(pluginName, new HashMap<>()));
+            return commands;
         }
-
-        return commands;
+        return commandIndex.get(knownCommands, pluginNames);
     }
 
     /**
@@ -264,7 +386,11 @@ public class BukkitPluginManager extends AbstractPluginManager<Plugin, BukkitPlu
 
         Map<String, Command> knownCommands = getKnownCommands();
         if (knownCommands == null) return;
-        knownCommands.values().removeIf(c -> c.equals(commands.get(c.getName().toLowerCase())));
+
+        for (Map.Entry<String, ? extends Command> entry : commands.entrySet()) {
+            knownCommands.remove(entry.getKey(), entry.getValue());
+        }
+        commandIndex.removed(knownCommands, commands.keySet());
     }
 
     /**
@@ -320,6 +446,7 @@ public class BukkitPluginManager extends AbstractPluginManager<Plugin, BukkitPlu
 
             unregisteredCommands.add(command);
         }
+        commandIndex.removed(map, Arrays.asList(commands));
 
         unregisterExactCommands(unregisteredCommands);
     }
@@ -380,18 +507,49 @@ public class BukkitPluginManager extends AbstractPluginManager<Plugin, BukkitPlu
     }
 
     @Override
-    public Optional<BukkitPluginDescription> getPluginDescription(File file) throws InvalidPluginDescriptionException {
+    protected Optional<BukkitPluginDescription> parsePluginDescription(
+            File file
+    ) throws InvalidPluginDescriptionException {
         if (!file.exists()) return Optional.empty();
 
         Optional<PluginLoader> loader = getPluginLoader(file);
         if (!loader.isPresent()) throw new InvalidPluginDescriptionException("Plugin loader is not present!");
         try {
-            return Optional.of(new BukkitPluginDescription(loader.get().getPluginDescription(file), file));
+            PluginDescriptionFile descriptionFile = null;
+            if (loader.get() instanceof JavaPluginLoader) {
+                descriptionFile = readPluginDescriptionFile(file).orElse(null);
+            }
+
+            if (descriptionFile == null) {
+                descriptionFile = loader.get().getPluginDescription(file);
+            }
+            return Optional.of(new BukkitPluginDescription(descriptionFile, file));
         } catch (InvalidDescriptionException ex) {
             throw new InvalidPluginDescriptionException(ex);
         }
     }
 
+    /**
+     * Reads the plugin.yml of the given jar through its zip central directory, without opening it as JarFile.
+     * @return The description, or empty if the jar could not be read this way.
+     * @throws InvalidDescriptionException Iff the jar has no (valid) plugin.yml.
+     */
+    private static Optional<PluginDescriptionFile> readPluginDescriptionFile(
+            File file
+    ) throws InvalidDescriptionException {
+        Optional<Map.Entry<String, byte[]>> entryOptional;
+        try {
+            entryOptional = ZipCentralDirectory.readFirstEntry(file.toPath(), "plugin.yml");
+        } catch (IOException ex) {
+            return Optional.empty();
+        }
+
+        if (!entryOptional.isPresent()) {
+            throw new InvalidDescriptionException(new FileNotFoundException("Jar does not contain plugin.yml"));
+        }
+        return Optional.of(new PluginDescriptionFile(new ByteArrayInputStream(entryOptional.get().getValue())));
+    }
+
     @Override
     public File getPluginFile(Plugin plugin) {
         return RJavaPlugin.getFile(plugin);
@@ -403,7 +561,7 @@ public class BukkitPluginManager extends AbstractPluginManager<Plugin, BukkitPlu
     }
 
     @Override
-    public BukkitPluginDescription getLoadedPluginDescription(Plugin plugin) {
+    protected BukkitPluginDescription createLoadedPluginDescription(Plugin plugin) {
         return new BukkitPluginDescription(plugin.getDescription(), getPluginFile(plugin));
     }
 
@@ -21,6 +21,11 @@ public class BukkitTaskManager extends AbstractTaskManager<BukkitTask> {
         return Bukkit.getScheduler().runTaskLater(ServerUtils.getInstance(), runnable, delay);
     }
 
+    @Override
+    public BukkitTask runTaskLaterAsynchronously(Runnable runnable, long delay) {
+        return Bukkit.getScheduler().runTaskLaterAsynchronously(ServerUtils.getInstance(), runnable, delay);
+    }
+
     @Override
     protected BukkitTask runTaskAsynchronouslyImpl(Runnable runnable) {
         return Bukkit.getScheduler().runTaskAsynchronously(ServerUtils.getInstance(), runnable);
@@ -0,0 +1,89 @@
+package net.frankheijden.serverutils.bukkit.managers;
+
+import java.util.Collection;
+import java.util.Set;
+import net.frankheijden.serverutils.bukkit.ServerUtils;
+import net.frankheijden.serverutils.bukkit.reflection.RCraftServer;
+import net.frankheijden.serverutils.common.jfr.LifecycleEvents;
+import net.frankheijden.serverutils.common.utils.LifecycleTimings;
+import net.frankheijden.serverutils.common.utils.SyncBatcher;
+import org.bukkit.Bukkit;
+
+/**
+ * Coalesces command tree synchronizations.
+ * Each request marks the tree dirty and merges the changed commands. Requests made during a lifecycle operation are
+ * flushed once that operation completes, and other requests by a task which runs once the current tick's work is
+ * done. Only the root nodes of changed commands are patched, and a reload (disable + enable) thus only resends the
+ * command tree to online players once.
+ */
+public class CommandSyncCoordinator {
+
+    private final LifecycleTimings timings;
+    private final CommandUpdateDispatcher updateDispatcher;
+    private final SyncBatcher<String> batcher;
+
+    /**
+     * Constructs a new CommandSyncCoordinator.
+     */
+    public CommandSyncCoordinator(LifecycleTimings timings, CommandUpdateDispatcher updateDispatcher) {
+        this.timings = timings;
+        this.updateDispatcher = updateDispatcher;
+        this.batcher = new SyncBatcher<>(
+                timings,
+                runnable -> Bukkit.getScheduler().runTask(ServerUtils.getInstance(), runnable),
+                this::flush
+        );
+    }
+
+    /**
+     * Marks the command tree dirty, and defers a sync if none is pending yet.
+     * @param commands The commands which were registered or unregistered.
+     */
+    public void requestSync(Collection<String> commands) {
+        batcher.request(commands);
+    }
+
+    /**
+     * Fully syncs the command tree immediately, if it is dirty.
+     * Used when the scheduler can no longer be relied on, e.g. while ServerUtils is disabling.
+     */
+    public void syncNow() {
+        batcher.flushNow(true);
+    }
+
+    /**
+     * Marks the given commands changed, and fully syncs the command tree immediately.
+     * @see #syncNow()
+     */
+    public void syncNow(Collection<String> commands) {
+        batcher.flushNow(commands, true);
+    }
+
+    public boolean isDirty() {
+        return batcher.isPending();
+    }
+
+    private void flush(Set<String> changed, LifecycleTimings.Operation operation, boolean full) {
+        if (!Bukkit.isPrimaryThread()) {
+            Bukkit.getScheduler().runTask(ServerUtils.getInstance(), () -> flush(changed, operation, full));
+            return;
+        }
+
+        // Records the phase into the operation which requested the sync, even if it finished already.
+        timings.attach(operation, () -> {
+            timings.time(LifecycleTimings.ALL_PLUGINS, "sync-commands", () -> LifecycleEvents.get().run(
+                    LifecycleEvents.Type.COMMAND_SYNC,
+                    LifecycleTimings.ALL_PLUGINS,
+                    () -> {
+                        if (full) {
+                            RCraftServer.syncCommands(changed);
+                        } else {
+                            RCraftServer.patchCommands(changed);
+                            updateDispatcher.updateAll();
+                        }
+                    }
+            ));
+            return null;
+        });
+    }
+}
@@ -0,0 +1,91 @@
+package net.frankheijden.serverutils.bukkit.managers;
+
+import dev.frankheijden.minecraftreflection.MinecraftReflectionVersion;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import net.frankheijden.serverutils.bukkit.ServerUtils;
+import net.frankheijden.serverutils.bukkit.reflection.RCommandDispatcher;
+import org.bukkit.Bukkit;
+import org.bukkit.command.Command;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * Spreads command tree updates of online players over multiple ticks, limited by the
+ * {@code settings.command-updates-per-tick} budget. Players whose visible commands didn't change since the last
+ * update we sent them are skipped, which is detected through a hash of their permission-filtered root nodes.
+ */
+public class CommandUpdateDispatcher {
+
+    private final Set<UUID> queue;
+    private final Map<UUID, Integer> sentHashes;
+    private BukkitTask task;
+
+    public CommandUpdateDispatcher() {
+        this.queue = new LinkedHashSet<>();
+        this.sentHashes = new HashMap<>();
+    }
+
+    /**
+     * Queues a command tree update for all online players.
+     */
+    public synchronized void updateAll() {
+        if (MinecraftReflectionVersion.MINOR < 13) return;
+
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            queue.add(player.getUniqueId());
+        }
+
+        if (task == null && !queue.isEmpty()) {
+            task = Bukkit.getScheduler().runTaskTimer(ServerUtils.getInstance(), this::tick, 0L, 1L);
+        }
+    }
+
+    /**
+     * Forgets the tree last sent to a player, e.g. because the server sent a fresh tree when the player joined.
+     */
+    public synchronized void forget(Player player) {
+        queue.remove(player.getUniqueId());
+        sentHashes.remove(player.getUniqueId());
+    }
+
+    private synchronized void tick() {
+        int budget = ServerUtils.getInstance().getPlugin().getConfigResource().getConfig()
+                .getInt("settings.command-updates-per-tick");
+        if (budget <= 0) budget = Integer.MAX_VALUE;
+
+        Map<String, Command> knownCommands = BukkitPluginManager.getKnownCommands();
+        Iterator<UUID> it = queue.iterator();
+        int sent = 0;
+        while (sent < budget && it.hasNext()) {
+            UUID uuid = it.next();
+            it.remove();
+
+            Player player = Bukkit.getPlayer(uuid);
+            if (player == null) {
+                sentHashes.remove(uuid);
+                continue;
+            }
+
+            Integer hash = knownCommands == null ? null : RCommandDispatcher.hashVisibleCommands(player, knownCommands);
+            if (hash != null && hash.equals(sentHashes.get(uuid))) continue;
+
+            player.updateCommands();
+            if (hash == null) {
+                sentHashes.remove(uuid);
+            } else {
+                sentHashes.put(uuid, hash);
+            }
+            sent++;
+        }
+
+        if (queue.isEmpty()) {
+            task.cancel();
+            task = null;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package net.frankheijden.serverutils.bukkit.managers;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import org.bukkit.command.Command;
+import org.bukkit.command.PluginIdentifiableCommand;
+
+/**
+ * Indexes the entries of the command map by the name of the plugin owning their command.
+ * The index is built with a single pass over the command map on first use, and from then on updated incrementally
+ * with the labels that ServerUtils registers and unregisters, so lookups never have to walk the command map.
+ * A label which is registered again moves to its new owner. Only when the size of the command map no longer matches
+ * after a registration (i.e. commands were registered or removed outside of ServerUtils), the index is rebuilt.
+ */
+public class PluginCommandIndex {
+
+    private final Map<String, Map<String, Command>> commandsByPlugin;
+    private final Map<String, String> pluginByLabel;
+    private final Map<String, Command> commandsByLabel;
+    private boolean built;
+
+    /**
+     * Constructs a new, empty PluginCommandIndex.
+     */
+    public PluginCommandIndex() {
+        this.commandsByPlugin = new HashMap<>();
+        this.pluginByLabel = new HashMap<>();
+        this.commandsByLabel = new HashMap<>();
+        this.built = false;
+    }
+
+    /**
+     * Retrieves the command map entries of a plugin.
+     */
+    public synchronized Map<String, Command> get(Map<String, Command> knownCommands, String pluginName) {
+        if (!built) rebuild(knownCommands);
+        return lookup(knownCommands, pluginName);
+    }
+
+    /**
+     * Retrieves the command map entries of multiple plugins, keyed by plugin name.
+     */
+    public synchronized Map<String, Map<String, Command>> get(
+            Map<String, Command> knownCommands,
+            Collection<String> pluginNames
+    ) {
+        if (!built) rebuild(knownCommands);
+
+        Map<String, Map<String, Command>> commands = new HashMap<>();
+        for (String pluginName : pluginNames) {
+            commands.put(pluginName, lookup(knownCommands, pluginName));
+        }
+        return commands;
+    }
+
+    private Map<String, Command> lookup(Map<String, Command> knownCommands, String pluginName) {
+        Map<String, Command> indexed = commandsByPlugin.get(pluginName);
+        Map<String, Command> commands = new HashMap<>();
+        if (indexed == null) return commands;
+
+        for (Map.Entry<String, Command> entry : indexed.entrySet()) {
+            if (knownCommands.get(entry.getKey()) == entry.getValue()) {
+                commands.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return commands;
+    }
+
+    /**
+     * Rebuilds the index with a single pass over the command map.
+     */
+    public synchronized void rebuild(Map<String, Command> knownCommands) {
+        commandsByPlugin.clear();
+        pluginByLabel.clear();
+        commandsByLabel.clear();
+        for (Map.Entry<String, Command> entry : knownCommands.entrySet()) {
+            index(entry.getKey(), entry.getValue());
+        }
+        built = true;
+    }
+
+    /**
+     * Indexes labels which were registered to the command map.
+     * @param labels The labels which were (possibly) registered.
+     */
+    public synchronized void registered(Map<String, Command> knownCommands, Collection<String> labels) {
+        if (!built) {
+            rebuild(knownCommands);
+            return;
+        }
+
+        for (String label : labels) {
+            update(knownCommands, label);
+        }
+
+        if (knownCommands.size() != commandsByLabel.size()) {
+            rebuild(knownCommands);
+        }
+    }
+
+    /**
+     * Removes labels which were removed from the command map from the index.
+     * @param labels The labels which were (possibly) removed.
+     */
+    public synchronized void removed(Map<String, Command> knownCommands, Collection<String> labels) {
+        if (!built) return;
+
+        for (String label : labels) {
+            update(knownCommands, label);
+        }
+    }
+
+    private void update(Map<String, Command> knownCommands, String label) {
+        Command command = knownCommands.get(label);
+        if (command == null) {
+            unindex(label);
+        } else if (commandsByLabel.get(label) != command) {
+            index(label, command);
+        }
+    }
+
+    private void index(String label, Command command) {
+        unindex(label);
+        commandsByLabel.put(label, command);
+        if (!(command instanceof PluginIdentifiableCommand)) return;
+
+        String pluginName = ((PluginIdentifiableCommand) command).getPlugin().getName();
+        commandsByPlugin.computeIfAbsent(pluginName, k -> new HashMap<>()).put(label, command);
+        pluginByLabel.put(label, pluginName);
+    }
+
+    private void unindex(String label) {
+        commandsByLabel.remove(label);
+        String pluginName = pluginByLabel.remove(label);
+        if (pluginName == null) return;
+
+        Map<String, Command> commands = commandsByPlugin.get(pluginName);
+        if (commands != null) {
+            commands.remove(label);
+            if (commands.isEmpty()) commandsByPlugin.remove(pluginName);
+        }
+    }
+}
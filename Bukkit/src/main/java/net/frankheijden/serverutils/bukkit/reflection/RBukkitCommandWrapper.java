@@ -0,0 +1,122 @@
+package net.frankheijden.serverutils.bukkit.reflection;
+
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.tree.CommandNode;
+import com.mojang.brigadier.tree.LiteralCommandNode;
+import dev.frankheijden.minecraftreflection.MinecraftReflectionVersion;
+import dev.frankheijden.minecraftreflection.exceptions.MinecraftReflectionException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import net.frankheijden.serverutils.common.reflection.FieldAccessor;
+import org.bukkit.Bukkit;
+import org.bukkit.command.Command;
+
+/**
+ * Registers bukkit commands as brigadier nodes, the same way CraftServer#syncCommands does.
+ * Not every server implementation ships this wrapper, see {@link RBukkitCommandWrapper#isAvailable()}.
+ * Vanilla commands are registered by their own brigadier node, such that they keep their arguments and suggestions.
+ */
+public class RBukkitCommandWrapper {
+
+    private static final MethodHandle constructorMethodHandle;
+    private static final MethodHandle registerMethodHandle;
+    private static final FieldAccessor vanillaCommandField;
+
+    static {
+        FieldAccessor vanillaCommand = null;
+        if (MinecraftReflectionVersion.MINOR >= 13) {
+            try {
+                Class<?> clazz = Class.forName(
+                        Bukkit.getServer().getClass().getPackage().getName() + ".command.VanillaCommandWrapper"
+                );
+                vanillaCommand = FieldAccessor.of(clazz, "vanillaCommand");
+            } catch (ClassNotFoundException | IllegalArgumentException ex) {
+                // Not available on this server implementation
+            }
+        }
+        vanillaCommandField = vanillaCommand;
+
+        MethodHandle constructor = null;
+        MethodHandle register = null;
+        if (MinecraftReflectionVersion.MINOR >= 13) {
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+                Class<?> clazz = Class.forName(
+                        Bukkit.getServer().getClass().getPackage().getName() + ".command.BukkitCommandWrapper"
+                );
+                for (Constructor<?> c : clazz.getConstructors()) {
+                    Class<?>[] parameterTypes = c.getParameterTypes();
+                    if (parameterTypes.length == 2 && Command.class.equals(parameterTypes[1])) {
+                        constructor = lookup.unreflectConstructor(c);
+                    }
+                }
+                for (Method m : clazz.getMethods()) {
+                    Class<?>[] parameterTypes = m.getParameterTypes();
+                    if (m.getName().equals("register")
+                            && parameterTypes.length == 2
+                            && CommandDispatcher.class.equals(parameterTypes[0])) {
+                        register = lookup.unreflect(m);
+                    }
+                }
+            } catch (ReflectiveOperationException ex) {
+                // Not available on this server implementation
+            }
+        }
+
+        if (constructor == null || register == null) {
+            constructorMethodHandle = null;
+            registerMethodHandle = null;
+        } else {
+            constructorMethodHandle = constructor;
+            registerMethodHandle = register;
+        }
+    }
+
+    private RBukkitCommandWrapper() {}
+
+    public static boolean isAvailable() {
+        return constructorMethodHandle != null;
+    }
+
+    /**
+     * Registers the given command under given label as child of the dispatcher's root.
+     */
+    public static void register(CommandDispatcher<?> dispatcher, Command command, String label) {
+        if (vanillaCommandField != null && vanillaCommandField.getField().getDeclaringClass().isInstance(command)) {
+            registerVanilla(dispatcher, vanillaCommandField.get(command), label);
+            return;
+        }
+
+        try {
+            Object wrapper = constructorMethodHandle.invoke(Bukkit.getServer(), command);
+            registerMethodHandle.invoke(wrapper, dispatcher, label);
+        } catch (Throwable th) {
+            throw new MinecraftReflectionException(th);
+        }
+    }
+
+    /**
+     * Registers the brigadier node of a vanilla command under given label, cloning the node if it was registered
+     * under a different label.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static void registerVanilla(CommandDispatcher<?> dispatcher, CommandNode node, String label) {
+        if (node instanceof LiteralCommandNode && !((LiteralCommandNode) node).getLiteral().equals(label)) {
+            LiteralCommandNode clone = new LiteralCommandNode(
+                    label,
+                    node.getCommand(),
+                    node.getRequirement(),
+                    node.getRedirect(),
+                    node.getRedirectModifier(),
+                    node.isFork()
+            );
+            for (Object child : node.getChildren()) {
+                clone.addChild((CommandNode) child);
+            }
+            node = clone;
+        }
+        ((CommandNode) dispatcher.getRoot()).addChild(node);
+    }
+}
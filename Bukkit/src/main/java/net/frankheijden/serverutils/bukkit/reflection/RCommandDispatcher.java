@@ -1,24 +1,30 @@
 package net.frankheijden.serverutils.bukkit.reflection;
 
 import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.tree.CommandNode;
 import dev.frankheijden.minecraftreflection.MinecraftReflection;
 import dev.frankheijden.minecraftreflection.MinecraftReflectionVersion;
 import dev.frankheijden.minecraftreflection.exceptions.MinecraftReflectionException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Map;
+import org.bukkit.command.Command;
+import org.bukkit.entity.Player;
 
 public class RCommandDispatcher {
 
     private static final MinecraftReflection reflection;
-    private static final Method getCommandDispatcherMethod;
-    private static final Method getDispatcherMethod;
+    private static final MethodHandle getCommandDispatcherMethodHandle;
+    private static final MethodHandle getDispatcherMethodHandle;
 
     static {
         if (MinecraftReflectionVersion.MINOR < 13) {
             reflection = null;
-            getCommandDispatcherMethod = null;
-            getDispatcherMethod = null;
+            getCommandDispatcherMethodHandle = null;
+            getDispatcherMethodHandle = null;
         } else {
             if (MinecraftReflectionVersion.MINOR >= 17) {
                 reflection = MinecraftReflection.of("net.minecraft.commands.CommandDispatcher");
@@ -26,14 +32,23 @@ public class RCommandDispatcher {
                 reflection = MinecraftReflection.of("net.minecraft.server.%s.CommandDispatcher");
             }
 
-            getCommandDispatcherMethod = Arrays.stream(RMinecraftServer.getReflection().getClazz().getDeclaredMethods())
+            Class<?> minecraftServerClass = RMinecraftServer.getReflection().getClazz();
+            Method getCommandDispatcherMethod = Arrays.stream(minecraftServerClass.getDeclaredMethods())
                     .filter(m -> m.getReturnType().equals(reflection.getClazz()))
                     .findAny()
                     .get();
-            getDispatcherMethod = Arrays.stream(getCommandDispatcherMethod.getReturnType().getDeclaredMethods())
+            Method getDispatcherMethod = Arrays.stream(getCommandDispatcherMethod.getReturnType().getDeclaredMethods())
                     .filter(m -> CommandDispatcher.class.equals(m.getReturnType()))
                     .findAny()
                     .get();
+            try {
+                getCommandDispatcherMethod.setAccessible(true);
+                getDispatcherMethod.setAccessible(true);
+                getCommandDispatcherMethodHandle = MethodHandles.lookup().unreflect(getCommandDispatcherMethod);
+                getDispatcherMethodHandle = MethodHandles.lookup().unreflect(getDispatcherMethod);
+            } catch (IllegalAccessException ex) {
+                throw new MinecraftReflectionException(ex);
+            }
         }
     }
 
@@ -44,10 +59,10 @@ public class RCommandDispatcher {
      */
     public static CommandDispatcher<?> getDispatcher() {
         try {
-            Object minecraftDispatcher = getCommandDispatcherMethod.invoke(RCraftServer.getConsole());
-            return (CommandDispatcher<?>) getDispatcherMethod.invoke(minecraftDispatcher);
-        } catch (ReflectiveOperationException ex) {
-            throw new MinecraftReflectionException(ex);
+            Object minecraftDispatcher = getCommandDispatcherMethodHandle.invoke(RCraftServer.getConsole());
+            return (CommandDispatcher<?>) getDispatcherMethodHandle.invoke(minecraftDispatcher);
+        } catch (Throwable th) {
+            throw new MinecraftReflectionException(th);
         }
     }
 
@@ -61,4 +76,34 @@ public class RCommandDispatcher {
             RCommandNode.removeCommand(dispatcher.getRoot(), command);
         }
     }
+
+    /**
+     * Replaces the root nodes of the given commands by nodes of their current registration in the command map,
+     * or removes them if they are no longer registered. Other root nodes are left untouched.
+     */
+    public static void patchCommands(Collection<? extends String> commands, Map<String, Command> knownCommands) {
+        CommandDispatcher<?> dispatcher = getDispatcher();
+        CommandNode<?> root = dispatcher.getRoot();
+        for (String name : commands) {
+            if (root.getChild(name) != null) RCommandNode.removeCommand(root, name);
+
+            Command command = knownCommands.get(name);
+            if (command != null) RBukkitCommandWrapper.register(dispatcher, command, name);
+        }
+    }
+
+    /**
+     * Computes an order independent hash of the root nodes visible to a player.
+     * Nodes without a bukkit command are considered visible; replaced nodes change the hash through their identity.
+     */
+    public static int hashVisibleCommands(Player player, Map<String, Command> knownCommands) {
+        int hash = 0;
+        for (CommandNode<?> child : getDispatcher().getRoot().getChildren()) {
+            Command command = knownCommands.get(child.getName());
+            if (command == null || command.testPermissionSilent(player)) {
+                hash += 31 * child.getName().hashCode() + System.identityHashCode(child);
+            }
+        }
+        return hash;
+    }
 }
@@ -1,25 +1,34 @@
 package net.frankheijden.serverutils.bukkit.reflection;
 
-import dev.frankheijden.minecraftreflection.MinecraftReflection;
-import dev.frankheijden.minecraftreflection.exceptions.MinecraftReflectionException;
 import java.util.Map;
+import net.frankheijden.serverutils.common.reflection.FieldAccessor;
+import net.frankheijden.serverutils.common.reflection.MethodAccessor;
 import org.bukkit.command.Command;
 import org.bukkit.command.SimpleCommandMap;
 
 public class RCommandMap {
 
-    private static final MinecraftReflection reflection = MinecraftReflection
-            .of(SimpleCommandMap.class);
+    private static final FieldAccessor knownCommandsField;
+    private static final MethodAccessor getKnownCommandsMethod;
+
+    static {
+        FieldAccessor field = null;
+        MethodAccessor method = null;
+        try {
+            field = FieldAccessor.of(SimpleCommandMap.class, "knownCommands");
+        } catch (IllegalArgumentException ex) {
+            method = MethodAccessor.of(SimpleCommandMap.class, "getKnownCommands");
+        }
+        knownCommandsField = field;
+        getKnownCommandsMethod = method;
+    }
 
     /**
      * Gets the known commands from the given command map.
      * TODO: figure out which version causes method change.
      */
     public static Map<String, Command> getKnownCommands(SimpleCommandMap map) {
-        try {
-            return reflection.get(map, "knownCommands");
-        } catch (MinecraftReflectionException ignored) {
-            return reflection.invoke(map, "getKnownCommands");
-        }
+        if (knownCommandsField != null) return knownCommandsField.get(map);
+        return getKnownCommandsMethod.invoke(map);
     }
 }
@@ -1,28 +1,26 @@
 package net.frankheijden.serverutils.bukkit.reflection;
 
 import com.mojang.brigadier.tree.CommandNode;
-import dev.frankheijden.minecraftreflection.ClassObject;
-import dev.frankheijden.minecraftreflection.MinecraftReflection;
+import net.frankheijden.serverutils.common.reflection.MethodAccessor;
 
 public class RCommandNode {
 
-    private static final MinecraftReflection reflection;
-
-    static {
-        reflection = MinecraftReflection.of(CommandNode.class);
-    }
+    // Added by CraftBukkit, hence not part of the brigadier API we compile against.
+    private static final MethodAccessor removeCommandMethod = MethodAccessor
+            .of(CommandNode.class, "removeCommand", String.class);
 
     public RCommandNode() {}
 
     public static void removeCommand(Object node, String name) {
-        reflection.invoke(node, "removeCommand", name);
+        removeCommandMethod.invoke(node, name);
     }
 
     public static String getName(Object node) {
-        return reflection.invoke(node, "getName");
+        return ((CommandNode<?>) node).getName();
     }
 
+    @SuppressWarnings({"unchecked", "rawtypes"})
     public static void addChild(Object parent, Object child) {
-        reflection.invoke(parent, "addChild", ClassObject.of(CommandNode.class, child));
+        ((CommandNode) parent).addChild((CommandNode) child);
     }
 }
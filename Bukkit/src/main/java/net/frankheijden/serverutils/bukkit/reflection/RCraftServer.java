@@ -6,6 +6,7 @@ import java.io.File;
 import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
+import net.frankheijden.serverutils.common.reflection.FieldAccessor;
 import org.bukkit.Bukkit;
 import org.bukkit.Warning;
 import org.bukkit.command.Command;
@@ -17,6 +18,7 @@ public class RCraftServer {
 
     private static final MinecraftReflection reflection = MinecraftReflection
             .of("org.bukkit.craftbukkit.%s.CraftServer");
+    private static final FieldAccessor commandMapField = FieldAccessor.of(reflection.getClazz(), "commandMap");
 
     public static MinecraftReflection getReflection() {
         return reflection;
@@ -41,15 +43,28 @@ public class RCraftServer {
     }
 
     public static SimpleCommandMap getCommandMap() {
-        return reflection.get(Bukkit.getServer(), "commandMap");
+        return commandMapField.get(Bukkit.getServer());
     }
 
     /**
-     * Syncs and registers all commands, but keeping the old values that haven't been added.
+     * Syncs and registers all commands, and updates the commands of all online players.
+     * @see #rebuildCommands(Set)
      */
-    @SuppressWarnings({"rawtypes"})
     public static void syncCommands(Set<String> removedCommands) {
         if (MinecraftReflectionVersion.MINOR < 13) return;
+        rebuildCommands(removedCommands);
+        updateCommands();
+    }
+
+    /**
+     * Rebuilds the brigadier tree from all commands, but keeping the old values that haven't been added.
+     * Nodes of removed commands are not restored; if such a command was registered again before the sync
+     * (e.g. a coalesced disable + enable), the freshly synced node is kept instead.
+     * Does not update the commands of online players.
+     */
+    @SuppressWarnings({"rawtypes"})
+    public static void rebuildCommands(Set<String> removedCommands) {
+        if (MinecraftReflectionVersion.MINOR < 13) return;
 
         Collection children = RCommandDispatcher.getDispatcher().getRoot().getChildren();
         reflection.invoke(Bukkit.getServer(), "syncCommands");
@@ -57,13 +72,28 @@ public class RCraftServer {
 
         for (Object child : children) {
             String name = RCommandNode.getName(child);
+            if (removedCommands.contains(name)) continue;
+
             RCommandNode.removeCommand(root, name);
+            RCommandNode.addChild(root, child);
+        }
+    }
 
-            if (!removedCommands.contains(name)) {
-                RCommandNode.addChild(root, child);
-            }
+    /**
+     * Patches the brigadier root for the given commands only, instead of rebuilding the whole tree.
+     * Root nodes of commands which are no longer registered are removed, and nodes of registered commands are
+     * (re)created from the command map. Falls back to a full rebuild if the server has no BukkitCommandWrapper.
+     * Like a rebuild, this does not update the commands of online players.
+     * @param commands The commands whose registration changed.
+     */
+    public static void patchCommands(Set<String> commands) {
+        if (MinecraftReflectionVersion.MINOR < 13) return;
+        if (!RBukkitCommandWrapper.isAvailable()) {
+            rebuildCommands(commands);
+            return;
         }
-        updateCommands();
+
+        RCommandDispatcher.patchCommands(commands, RCommandMap.getKnownCommands(getCommandMap()));
     }
 
     /**
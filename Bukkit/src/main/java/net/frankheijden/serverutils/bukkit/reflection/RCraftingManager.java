@@ -6,8 +6,8 @@ import dev.frankheijden.minecraftreflection.MinecraftReflectionVersion;
 import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Predicate;
 import net.frankheijden.serverutils.common.utils.MapUtils;
 import org.bukkit.plugin.Plugin;
@@ -42,12 +42,23 @@ public class RCraftingManager {
      * Removes all associated recipes of a plugin.
      * @param plugin The plugin to remove recipes for.
      */
-    @SuppressWarnings({"unchecked", "rawtypes"})
     public static void removeRecipesFor(Plugin plugin) {
+        removeRecipesFor(Collections.singletonList(plugin));
+    }
+
+    /**
+     * Removes all associated recipes of the given plugins, with a single pass over each recipe map.
+     * @param plugins The plugins to remove recipes for.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static void removeRecipesFor(Collection<? extends Plugin> plugins) {
         // Cleaning up recipes before MC 1.12 is not possible,
         // as recipes are not associated to plugins.
+        if (plugins.isEmpty() || MinecraftReflectionVersion.MINOR < 12) return;
+
+        Predicate<Object> predicate = RMinecraftKey.matchingPluginsPredicate(plugins);
         if (MinecraftReflectionVersion.MINOR == 12) {
-            RRegistryMaterials.removeKeysFor(reflection.get(null, "recipes"), plugin);
+            RRegistryMaterials.removeKeys(reflection.get(null, "recipes"), predicate);
         } else if (MinecraftReflectionVersion.MINOR > 12) {
             Object server = RMinecraftServer.getReflection().invoke(null, "getServer");
             Object craftingManager;
@@ -64,7 +75,6 @@ public class RCraftingManager {
                 recipes = reflection.get(craftingManager, "recipes");
             }
 
-            Predicate<Object> predicate = RMinecraftKey.matchingPluginPredicate(new AtomicBoolean(false), plugin);
             if (MinecraftReflectionVersion.MINOR == 13) {
                 MapUtils.removeKeys(recipes, predicate);
             } else {
@@ -2,14 +2,20 @@ package net.frankheijden.serverutils.bukkit.reflection;
 
 import dev.frankheijden.minecraftreflection.MinecraftReflection;
 import dev.frankheijden.minecraftreflection.MinecraftReflectionVersion;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.Locale;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.Set;
 import java.util.function.Predicate;
+import net.frankheijden.serverutils.common.reflection.FieldAccessor;
+import net.frankheijden.serverutils.common.reflection.MethodAccessor;
 import org.bukkit.plugin.Plugin;
 
 public class RMinecraftKey {
 
     private static final MinecraftReflection reflection;
+    private static final FieldAccessor namespaceField;
+    private static final MethodAccessor getNamespaceMethod;
 
     static {
         if (MinecraftReflectionVersion.MINOR >= 17) {
@@ -17,6 +23,21 @@ public class RMinecraftKey {
         } else {
             reflection = MinecraftReflection.of("net.minecraft.server.%s.MinecraftKey");
         }
+
+        Class<?> clazz = reflection.getClazz();
+        if (MinecraftReflectionVersion.MINOR <= 13) {
+            namespaceField = FieldAccessor.of(clazz, "a");
+            getNamespaceMethod = null;
+        } else if (MinecraftReflectionVersion.MINOR == 17) {
+            namespaceField = null;
+            getNamespaceMethod = MethodAccessor.of(clazz, "getNamespace");
+        } else if (MinecraftReflectionVersion.MINOR >= 18) {
+            namespaceField = null;
+            getNamespaceMethod = MethodAccessor.of(clazz, "b");
+        } else {
+            namespaceField = FieldAccessor.of(clazz, "namespace");
+            getNamespaceMethod = null;
+        }
     }
 
     private RMinecraftKey() {}
@@ -31,38 +52,21 @@ public class RMinecraftKey {
      * @return The namespace.
      */
     public static String getNameSpace(Object instance) {
-        if (MinecraftReflectionVersion.MINOR <= 13) {
-            return reflection.get(instance, "a");
-        } else if (MinecraftReflectionVersion.MINOR == 17) {
-            return reflection.invoke(instance, "getNamespace");
-        } else if (MinecraftReflectionVersion.MINOR >= 18) {
-            return reflection.invoke(instance, "b");
-        }
-        return reflection.get(instance, "namespace");
-    }
-
-    public static boolean isFrom(Object instance, Plugin plugin) throws IllegalAccessException {
-        String namespace = plugin.getName().toLowerCase(Locale.ROOT);
-        return namespace.equalsIgnoreCase(getNameSpace(instance));
+        if (namespaceField != null) return namespaceField.get(instance);
+        return getNamespaceMethod.invoke(instance);
     }
 
     /**
-     * Creates a predicate which returns true if a MinecraftKey instance comes from the specified plugin.
-     * @param errorThrown Requires an atomicboolean to ensure an exception is only thrown once, if any.
-     * @param plugin The plugin to match the MinecraftKey instance with.
+     * Creates a predicate which returns true if a MinecraftKey instance comes from any of the specified plugins.
+     * The namespaces of the plugins are resolved once, such that each key only costs a single set lookup.
+     * @param plugins The plugins to match the MinecraftKey instance with.
      * @return The predicate.
      */
-    public static Predicate<Object> matchingPluginPredicate(AtomicBoolean errorThrown, Plugin plugin) {
-        return o -> {
-            try {
-                return RMinecraftKey.isFrom(o, plugin);
-            } catch (IllegalAccessException ex) {
-                if (!errorThrown.get()) {
-                    ex.printStackTrace();
-                    errorThrown.set(true);
-                }
-            }
-            return false;
-        };
+    public static Predicate<Object> matchingPluginsPredicate(Collection<? extends Plugin> plugins) {
+        Set<String> namespaces = new HashSet<>(plugins.size());
+        for (Plugin plugin : plugins) {
+            namespaces.add(plugin.getName().toLowerCase(Locale.ROOT));
+        }
+        return o -> namespaces.contains(getNameSpace(o).toLowerCase(Locale.ROOT));
     }
 }
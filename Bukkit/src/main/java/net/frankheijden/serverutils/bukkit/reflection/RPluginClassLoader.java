@@ -4,7 +4,7 @@ import java.lang.reflect.Field;
 import java.util.Map;
 import dev.frankheijden.minecraftreflection.MinecraftReflection;
 import dev.frankheijden.minecraftreflection.MinecraftReflectionVersion;
-import dev.frankheijden.minecraftreflection.Reflection;
+import net.frankheijden.serverutils.common.reflection.FieldAccessor;
 import net.frankheijden.serverutils.common.utils.ReflectionUtils;
 import org.bukkit.plugin.PluginLoader;
 
@@ -12,6 +12,13 @@ public class RPluginClassLoader {
 
     private static final MinecraftReflection reflection = MinecraftReflection
             .of("org.bukkit.plugin.java.PluginClassLoader");
+    private static final FieldAccessor loaderField = FieldAccessor.of(reflection.getClazz(), "loader");
+    private static final FieldAccessor libraryLoaderField = MinecraftReflectionVersion.MINOR > 16
+            ? FieldAccessor.of(reflection.getClazz(), "libraryLoader")
+            : null;
+    private static final FieldAccessor pluginField = FieldAccessor.of(reflection.getClazz(), "plugin");
+    private static final FieldAccessor pluginInitField = FieldAccessor.of(reflection.getClazz(), "pluginInit");
+    private static final FieldAccessor classesField = FieldAccessor.of(reflection.getClazz(), "classes");
 
     public static MinecraftReflection getReflection() {
         return reflection;
@@ -30,12 +37,12 @@ public class RPluginClassLoader {
 
     public static PluginLoader getLoader(ClassLoader loader) {
         if (loader == null) return null;
-        return reflection.get(loader, "loader");
+        return loaderField.get(loader);
     }
 
     public static ClassLoader getLibraryLoader(ClassLoader loader) {
         if (loader == null || MinecraftReflectionVersion.MINOR <= 16) return null;
-        return reflection.get(loader, "libraryLoader");
+        return libraryLoaderField.get(loader);
     }
 
     /**
@@ -44,19 +51,19 @@ public class RPluginClassLoader {
     public static void clearPluginClassLoader(Object classLoader) {
         if (classLoader == null) return;
 
-        reflection.set(classLoader, "loader", null);
+        loaderField.set(classLoader, null);
         if (MinecraftReflectionVersion.MINOR > 16) {
             ReflectionUtils.doPrivilegedWithUnsafe(unsafe -> {
-                Field libraryLoaderField = Reflection.getField(reflection.getClazz(), "libraryLoader");
-                unsafe.putObject(classLoader, unsafe.objectFieldOffset(libraryLoaderField), null);
+                Field field = libraryLoaderField.getField();
+                unsafe.putObject(classLoader, unsafe.objectFieldOffset(field), null);
             });
         }
-        reflection.set(classLoader, "plugin", null);
-        reflection.set(classLoader, "pluginInit", null);
+        pluginField.set(classLoader, null);
+        pluginInitField.set(classLoader, null);
         getClasses(classLoader).clear();
     }
 
     public static Map<String, Class<?>> getClasses(Object classLoader) {
-        return reflection.get(classLoader, "classes");
+        return classesField.get(classLoader);
     }
 }
@@ -2,9 +2,8 @@ package net.frankheijden.serverutils.bukkit.reflection;
 
 import dev.frankheijden.minecraftreflection.MinecraftReflection;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
 import net.frankheijden.serverutils.common.utils.MapUtils;
-import org.bukkit.plugin.Plugin;
 
 public class RRegistryMaterials {
 
@@ -16,17 +15,16 @@ public class RRegistryMaterials {
     }
 
     /**
-     * Removes all registered keys from an instance associated to the specified plugin.
+     * Removes all registered keys from an instance matching the specified MinecraftKey predicate.
      * @param instance The RegistryMaterials instance.
-     * @param plugin The plugin to remove keys for.
+     * @param predicate The predicate to match MinecraftKey's to remove.
      */
     @SuppressWarnings("rawtypes")
-    public static void removeKeysFor(Object instance, Plugin plugin) {
+    public static void removeKeys(Object instance, Predicate<Object> predicate) {
         Map map = reflection.get(instance, "b");
         if (map == null) throw new RuntimeException("Map object was null!");
 
-        AtomicBoolean errorThrown = new AtomicBoolean(false);
-        MapUtils.removeValues(map, RMinecraftKey.matchingPluginPredicate(errorThrown, plugin));
-        RRegistrySimple.removeKeyFor(instance, plugin);
+        MapUtils.removeValues(map, predicate);
+        RRegistrySimple.removeKeys(instance, predicate);
     }
 }
@@ -2,9 +2,8 @@ package net.frankheijden.serverutils.bukkit.reflection;
 
 import dev.frankheijden.minecraftreflection.MinecraftReflection;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
 import net.frankheijden.serverutils.common.utils.MapUtils;
-import org.bukkit.plugin.Plugin;
 
 public class RRegistrySimple {
 
@@ -16,16 +15,15 @@ public class RRegistrySimple {
     }
 
     /**
-     * Removes all registered MinecraftKey's from an instance associated to the specified plugin.
+     * Removes all registered MinecraftKey's from an instance matching the specified predicate.
      * @param instance The RegistrySimple instance.
-     * @param plugin The plugin to remove keys for.
+     * @param predicate The predicate to match MinecraftKey's to remove.
      */
     @SuppressWarnings("rawtypes")
-    public static void removeKeyFor(Object instance, Plugin plugin) {
+    public static void removeKeys(Object instance, Predicate<Object> predicate) {
         Map map = reflection.get(instance, "c");
         if (map == null) throw new RuntimeException("Map object was null!");
 
-        AtomicBoolean errorThrown = new AtomicBoolean(false);
-        MapUtils.removeKeys(map, RMinecraftKey.matchingPluginPredicate(errorThrown, plugin));
+        MapUtils.removeKeys(map, predicate);
     }
 }
@@ -1,6 +1,7 @@
 package net.frankheijden.serverutils.bungee.entities;
 
 import java.io.File;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 import net.frankheijden.serverutils.common.entities.ServerUtilsPluginDescription;
@@ -18,7 +19,7 @@ public class BungeePluginDescription implements ServerUtilsPluginDescription {
     public BungeePluginDescription(PluginDescription description) {
         this.description = description;
         this.file = description.getFile();
-        this.dependencies = new HashSet<>(description.getDepends());
+        this.dependencies = Collections.unmodifiableSet(new HashSet<>(description.getDepends()));
     }
 
     @Override
@@ -54,4 +55,16 @@ public class BungeePluginDescription implements ServerUtilsPluginDescription {
     public PluginDescription getDescription() {
         return description;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return getId().equals(((BungeePluginDescription) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return getId().hashCode();
+    }
 }
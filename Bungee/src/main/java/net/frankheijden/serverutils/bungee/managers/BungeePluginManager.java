@@ -1,11 +1,12 @@
 package net.frankheijden.serverutils.bungee.managers;
 
+import java.io.ByteArrayInputStream;
 import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
@@ -13,8 +14,6 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.Stack;
-import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
 import java.util.logging.Level;
 import java.util.stream.Collectors;
 import net.frankheijden.serverutils.bungee.entities.BungeePluginDescription;
@@ -31,6 +30,9 @@ import net.frankheijden.serverutils.common.entities.results.PluginResults;
 import net.frankheijden.serverutils.common.entities.results.Result;
 import net.frankheijden.serverutils.common.events.PluginEvent;
 import net.frankheijden.serverutils.common.managers.AbstractPluginManager;
+import net.frankheijden.serverutils.common.utils.LifecycleTimings;
+import net.frankheijden.serverutils.common.utils.PluginFootprints;
+import net.frankheijden.serverutils.common.utils.ZipCentralDirectory;
 import net.md_5.bungee.api.ProxyServer;
 import net.md_5.bungee.api.plugin.Plugin;
 import net.md_5.bungee.api.plugin.PluginDescription;
@@ -91,12 +93,23 @@ public class BungeePluginManager extends AbstractPluginManager<Plugin, BungeePlu
 
         RPluginManager.setToLoad(proxyPluginManager, toLoad);
 
-        for (Map.Entry<String, PluginDescription> entry : toLoad.entrySet()) {
-            // Yeah... loadPlugins() calls enablePlugin()
-            if (!RPluginManager.enablePlugin(proxyPluginManager, pluginStatuses, new Stack<>(), entry.getValue())) {
-                return loadResults.addResult(entry.getKey(), Result.ERROR);
+        // Dependencies are loaded recursively, hence the load is timed for all plugins at once
+        // The metaspace can only be attributed if a single plugin was loaded
+        PluginFootprints.LoadSample sample = getFootprints().beginLoad();
+        List<String> loadedIds = Collections.emptyList();
+        long start = System.nanoTime();
+        try {
+            for (Map.Entry<String, PluginDescription> entry : toLoad.entrySet()) {
+                // Yeah... loadPlugins() calls enablePlugin()
+                if (!RPluginManager.enablePlugin(proxyPluginManager, pluginStatuses, new Stack<>(), entry.getValue())) {
+                    return loadResults.addResult(entry.getKey(), Result.ERROR);
+                }
             }
+            loadedIds = descriptions.stream().map(BungeePluginDescription::getId).collect(Collectors.toList());
+        } finally {
+            getFootprints().endLoad(sample, loadedIds);
         }
+        getTimings().record(LifecycleTimings.ALL_PLUGINS, "load", System.nanoTime() - start);
 
         toLoad.clear();
         RPluginManager.setToLoad(proxyPluginManager, null);
@@ -117,6 +130,7 @@ public class BungeePluginManager extends AbstractPluginManager<Plugin, BungeePlu
     @Override
     public PluginResults<Plugin> enableOrderedPlugins(List<Plugin> plugins) {
         PluginResults<Plugin> enableResults = new PluginResults<>();
+        LifecycleTimings timings = getTimings();
 
         for (Plugin plugin : plugins) {
             ServerUtilsPluginDescription description = getLoadedPluginDescription(plugin);
@@ -124,7 +138,7 @@ public class BungeePluginManager extends AbstractPluginManager<Plugin, BungeePlu
 
             proxy.getPluginManager().callEvent(new BungeePluginEnableEvent(plugin, PluginEvent.Stage.PRE));
             try {
-                plugin.onEnable();
+                timings.time(pluginId, "enable", plugin::onEnable);
             } catch (Throwable th) {
                 proxy.getLogger().log(Level.WARNING, "Exception encountered when loading plugin: " + pluginId, th);
                 return enableResults.addResult(pluginId, Result.ERROR);
@@ -152,12 +166,13 @@ public class BungeePluginManager extends AbstractPluginManager<Plugin, BungeePlu
     @Override
     public PluginResults<Plugin> disableOrderedPlugins(List<Plugin> plugins) {
         PluginResults<Plugin> disableResults = new PluginResults<>();
+        LifecycleTimings timings = getTimings();
 
         for (Plugin plugin : plugins) {
             String pluginId = getPluginId(plugin);
             proxy.getPluginManager().callEvent(new BungeePluginDisableEvent(plugin, PluginEvent.Stage.PRE));
             try {
-                plugin.onDisable();
+                timings.time(pluginId, "disable", plugin::onDisable);
             } catch (Throwable th) {
                 proxy.getLogger().log(Level.WARNING, "Exception encountered when disabling plugin: " + pluginId, th);
                 return disableResults.addResult(pluginId, Result.ERROR);
@@ -173,17 +188,19 @@ public class BungeePluginManager extends AbstractPluginManager<Plugin, BungeePlu
     @Override
     public CloseablePluginResults<Plugin> unloadOrderedPlugins(List<Plugin> plugins) {
         CloseablePluginResults<Plugin> unloadResults = new CloseablePluginResults<>();
+        LifecycleTimings timings = getTimings();
 
         for (Plugin plugin : plugins) {
             String pluginId = getPluginId(plugin);
 
             proxy.getPluginManager().callEvent(new BungeePluginUnloadEvent(plugin, PluginEvent.Stage.PRE));
-            proxy.getPluginManager().unregisterCommands(plugin);
-            proxy.getPluginManager().unregisterListeners(plugin);
+            timings.time(pluginId, "unregister-commands", () -> proxy.getPluginManager().unregisterCommands(plugin));
+            timings.time(pluginId, "unregister-listeners", () -> proxy.getPluginManager().unregisterListeners(plugin));
             proxy.getScheduler().cancel(plugin);
             plugin.getExecutorService().shutdown();
 
             List<Closeable> closeables = new ArrayList<>();
+            long start = System.nanoTime();
             try {
                 RPluginManager.clearPlugin(proxy.getPluginManager(), plugin);
                 addIfInstance(closeables, RPluginClassLoader.removePluginClassLoader(plugin));
@@ -192,6 +209,7 @@ public class BungeePluginManager extends AbstractPluginManager<Plugin, BungeePlu
                 ex.printStackTrace();
                 return unloadResults.addResult(pluginId, Result.ERROR);
             }
+            timings.record(pluginId, "unload", System.nanoTime() - start);
 
             proxy.getPluginManager().callEvent(new BungeePluginUnloadEvent(plugin, PluginEvent.Stage.POST));
             unloadResults.addResult(pluginId, plugin, closeables);
@@ -206,33 +224,21 @@ public class BungeePluginManager extends AbstractPluginManager<Plugin, BungeePlu
         }
     }
 
-    @Override
-    public Optional<File> getPluginFile(String pluginId) {
-        for (File file : getPluginJars()) {
-            BungeePluginDescription description;
-            try {
-                Optional<BungeePluginDescription> descriptionOptional = getPluginDescription(file);
-                if (!descriptionOptional.isPresent()) continue;
-                description = descriptionOptional.get();
-            } catch (Exception ex) {
-                continue;
-            }
-
-            if (description.getId().equals(pluginId)) return Optional.of(file);
-        }
-        return Optional.empty();
-    }
-
     @Override
     public Optional<Plugin> getPlugin(String pluginName) {
         return Optional.ofNullable(proxy.getPluginManager().getPlugin(pluginName));
     }
 
     @Override
-    public BungeePluginDescription getLoadedPluginDescription(Plugin plugin) {
+    protected BungeePluginDescription createLoadedPluginDescription(Plugin plugin) {
         return new BungeePluginDescription(plugin.getDescription());
     }
 
+    @Override
+    public String getPluginId(Plugin plugin) {
+        return plugin.getDescription().getName();
+    }
+
     @Override
     public Plugin getInstance(Plugin plugin) {
         return plugin;
@@ -246,32 +252,34 @@ public class BungeePluginManager extends AbstractPluginManager<Plugin, BungeePlu
     }
 
     @Override
-    public Optional<BungeePluginDescription> getPluginDescription(File file) throws InvalidPluginDescriptionException {
-        try (JarFile jar = new JarFile(file)) {
-            JarEntry entry = jar.getJarEntry("bungee.yml");
-            if (entry == null) {
-                entry = jar.getJarEntry("plugin.yml");
-            }
-
-            if (entry == null) {
-                throw new InvalidPluginDescriptionException("Plugin must have a plugin.yml or bungee.yml");
-            }
-
-            try (InputStream in = jar.getInputStream(entry)) {
-                Yaml yaml = RPluginManager.getYaml(proxy.getPluginManager());
-                PluginDescription description = yaml.loadAs(in, PluginDescription.class);
-                if (description.getName() == null) {
-                    throw new InvalidPluginDescriptionException("Plugin from " + file + " has no name");
-                } else if (description.getMain() == null) {
-                    throw new InvalidPluginDescriptionException("Plugin from " + file + " has no main");
-                }
-
-                description.setFile(file);
-                return Optional.of(new BungeePluginDescription(description));
-            }
+    protected Optional<BungeePluginDescription> parsePluginDescription(
+            File file
+    ) throws InvalidPluginDescriptionException {
+        Optional<Map.Entry<String, byte[]>> entryOptional;
+        try {
+            entryOptional = ZipCentralDirectory.readFirstEntry(file.toPath(), "bungee.yml", "plugin.yml");
         } catch (IOException ex) {
             throw new InvalidPluginDescriptionException(ex);
         }
+
+        if (!entryOptional.isPresent()) {
+            throw new InvalidPluginDescriptionException("Plugin must have a plugin.yml or bungee.yml");
+        }
+
+        ByteArrayInputStream in = new ByteArrayInputStream(entryOptional.get().getValue());
+        Yaml yaml = RPluginManager.getYaml(proxy.getPluginManager());
+        PluginDescription description;
+        synchronized (yaml) { // SnakeYAML instances are not thread-safe, descriptions are parsed in parallel
+            description = yaml.loadAs(in, PluginDescription.class);
+        }
+        if (description.getName() == null) {
+            throw new InvalidPluginDescriptionException("Plugin from " + file + " has no name");
+        } else if (description.getMain() == null) {
+            throw new InvalidPluginDescriptionException("Plugin from " + file + " has no main");
+        }
+
+        description.setFile(file);
+        return Optional.of(new BungeePluginDescription(description));
     }
 
     @Override
@@ -23,6 +23,11 @@ public class BungeeTaskManager extends AbstractTaskManager<ScheduledTask> {
                 .schedule(ServerUtils.getInstance(), runnable, delay * 50, TimeUnit.MILLISECONDS);
     }
 
+    @Override
+    public ScheduledTask runTaskLaterAsynchronously(Runnable runnable, long delay) {
+        return runTaskLater(runnable, delay);
+    }
+
     @Override
     protected ScheduledTask runTaskAsynchronouslyImpl(Runnable runnable) {
         return ProxyServer.getInstance().getScheduler().runAsync(ServerUtils.getInstance(), runnable);
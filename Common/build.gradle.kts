@@ -14,6 +14,12 @@ repositories {
     maven("https://jitpack.io")
 }
 
+// Classes which require JDK 11+ (e.g. Flight Recorder events), bundled with the Java 8 classes.
+// They are only loaded reflectively when running on JDK 11+.
+val java11: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+}
+
 dependencies {
     compileOnly("net.kyori:adventure-platform-api:${VersionConstants.adventurePlatformVersion}") {
         exclude("net.kyori", "adventure-api")
@@ -26,12 +32,22 @@ dependencies {
 }
 
 tasks {
+    named<JavaCompile>("compileJava11Java") {
+        options.encoding = Charsets.UTF_8.name()
+        options.release.set(11)
+    }
+
+    jar {
+        from(java11.output)
+    }
+
     blossom {
         replaceToken("{version}", version, "src/main/java/net/frankheijden/serverutils/common/ServerUtilsApp.java")
     }
 }
 
 tasks.withType<ShadowJar> {
+    from(java11.output)
     exclude("plugin.yml")
     exclude("bungee.yml")
 }
@@ -0,0 +1,103 @@
+package net.frankheijden.serverutils.common.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder backed implementation of {@link LifecycleEvents}, loaded reflectively on JDK 11+.
+ */
+public class JfrLifecycleEvents extends LifecycleEvents {
+
+    public JfrLifecycleEvents() {}
+
+    @Override
+    public Event begin(Type type) {
+        PluginLifecycleEvent event = create(type);
+        if (!event.isEnabled()) return Event.NOOP;
+
+        event.begin();
+        return (pluginId, result) -> {
+            event.end();
+            if (event.shouldCommit()) {
+                event.pluginId = pluginId;
+                event.result = result;
+                event.commit();
+            }
+        };
+    }
+
+    private static PluginLifecycleEvent create(Type type) {
+        switch (type) {
+            case LOAD:
+                return new PluginLoadEvent();
+            case ENABLE:
+                return new PluginEnableEvent();
+            case DISABLE:
+                return new PluginDisableEvent();
+            case UNLOAD:
+                return new PluginUnloadEvent();
+            case RELOAD:
+                return new PluginReloadEvent();
+            case COMMAND_SYNC:
+                return new CommandSyncEvent();
+            case RECIPE_REMOVAL:
+                return new RecipeRemovalEvent();
+            case WATCHER_RELOAD:
+                return new WatcherReloadEvent();
+            default:
+                throw new IllegalArgumentException("Unknown lifecycle event type: " + type);
+        }
+    }
+
+    @Category("ServerUtils")
+    abstract static class PluginLifecycleEvent extends jdk.jfr.Event {
+
+        @Label("Plugin Id")
+        String pluginId;
+
+        @Label("Result")
+        String result;
+    }
+
+    @Name("serverutils.PluginLoad")
+    @Label("Plugin Load")
+    @Description("Loads one or more plugins.")
+    static final class PluginLoadEvent extends PluginLifecycleEvent {}
+
+    @Name("serverutils.PluginEnable")
+    @Label("Plugin Enable")
+    @Description("Enables one or more plugins.")
+    static final class PluginEnableEvent extends PluginLifecycleEvent {}
+
+    @Name("serverutils.PluginDisable")
+    @Label("Plugin Disable")
+    @Description("Disables one or more plugins.")
+    static final class PluginDisableEvent extends PluginLifecycleEvent {}
+
+    @Name("serverutils.PluginUnload")
+    @Label("Plugin Unload")
+    @Description("Unloads one or more plugins.")
+    static final class PluginUnloadEvent extends PluginLifecycleEvent {}
+
+    @Name("serverutils.PluginReload")
+    @Label("Plugin Reload")
+    @Description("Reloads one or more plugins.")
+    static final class PluginReloadEvent extends PluginLifecycleEvent {}
+
+    @Name("serverutils.CommandSync")
+    @Label("Command Sync")
+    @Description("Synchronizes the command tree after commands were (un)registered.")
+    static final class CommandSyncEvent extends PluginLifecycleEvent {}
+
+    @Name("serverutils.RecipeRemoval")
+    @Label("Recipe Removal")
+    @Description("Removes the recipes registered by a plugin.")
+    static final class RecipeRemovalEvent extends PluginLifecycleEvent {}
+
+    @Name("serverutils.WatcherReload")
+    @Label("Watcher Reload")
+    @Description("Reloads plugins after their jar files changed.")
+    static final class WatcherReloadEvent extends PluginLifecycleEvent {}
+}
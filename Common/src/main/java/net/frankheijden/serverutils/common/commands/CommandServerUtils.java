@@ -10,6 +10,9 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.IntFunction;
@@ -28,6 +31,10 @@ import net.frankheijden.serverutils.common.entities.ServerUtilsAudience;
 import net.frankheijden.serverutils.common.entities.ServerUtilsPlugin;
 import net.frankheijden.serverutils.common.managers.AbstractPluginManager;
 import net.frankheijden.serverutils.common.tasks.UpdateCheckerTask;
+import net.frankheijden.serverutils.common.utils.ClassLoaderLeakDetector;
+import net.frankheijden.serverutils.common.utils.ClassPreloader;
+import net.frankheijden.serverutils.common.utils.LifecycleTimings;
+import net.frankheijden.serverutils.common.utils.PluginFootprints;
 import net.frankheijden.serverutils.common.utils.ListComponentBuilder;
 import net.frankheijden.serverutils.common.utils.KeyValueComponentBuilder;
 import net.kyori.adventure.text.Component;
@@ -96,6 +103,12 @@ public abstract class CommandServerUtils<U extends ServerUtilsPlugin<P, ?, C, ?,
         registerSubcommand(manager, builder, "commandinfo", subcommandBuilder -> subcommandBuilder
                 .argument(getArgument("command"))
                 .handler(this::handleCommandInfo));
+        registerSubcommand(manager, builder, "timings", subcommandBuilder -> subcommandBuilder
+                .handler(this::handleTimings));
+        registerSubcommand(manager, builder, "leaks", subcommandBuilder -> subcommandBuilder
+                .handler(this::handleLeaks));
+        registerSubcommand(manager, builder, "memory", subcommandBuilder -> subcommandBuilder
+                .handler(this::handleMemory));
     }
 
     private void handleHelpCommand(CommandContext<C> context) {
@@ -197,15 +210,15 @@ public abstract class CommandServerUtils<U extends ServerUtilsPlugin<P, ?, C, ?,
         List<File> jarFiles = Arrays.asList(context.get("jarFiles"));
 
         AbstractPluginManager<P, ?> pluginManager = plugin.getPluginManager();
-        PluginResults<P> loadResults = pluginManager.loadPlugins(jarFiles);
-        if (!loadResults.isSuccess()) {
-            PluginResult<P> failedResult = loadResults.last();
-            failedResult.sendTo(sender, null);
-            return;
-        }
-
-        PluginResults<P> enableResults = pluginManager.enablePlugins(loadResults.getPlugins());
-        enableResults.sendTo(sender, MessageKey.LOADPLUGIN);
+        pluginManager.loadPluginsAsync(jarFiles)
+                .thenCompose(loadResults -> loadResults.isSuccess()
+                        ? pluginManager.enablePluginsAsync(loadResults.getPlugins())
+                        : CompletableFuture.completedFuture(loadResults))
+                .whenComplete((results, th) -> {
+                    if (handleFailure(sender, th)) return;
+                    results.sendTo(sender, MessageKey.LOADPLUGIN);
+                    preloadClasses(sender, results);
+                });
     }
 
     private void handleUnloadPlugin(CommandContext<C> context) {
@@ -249,8 +262,35 @@ public abstract class CommandServerUtils<U extends ServerUtilsPlugin<P, ?, C, ?,
             return;
         }
 
-        PluginResults<P> reloadResults = plugin.getPluginManager().reloadPlugins(plugins);
-        reloadResults.sendTo(sender, MessageKey.RELOADPLUGIN_SUCCESS);
+        plugin.getPluginManager().reloadPluginsAsync(plugins).whenComplete((reloadResults, th) -> {
+            if (handleFailure(sender, th)) return;
+            reloadResults.sendTo(sender, MessageKey.RELOADPLUGIN_SUCCESS);
+            preloadClasses(sender, reloadResults);
+        });
+    }
+
+    private boolean handleFailure(C sender, Throwable th) {
+        if (th == null) return false;
+        th.printStackTrace();
+        plugin.getMessagesResource().get(MessageKey.GENERIC_ERROR).sendTo(sender);
+        return true;
+    }
+
+    private void preloadClasses(C sender, PluginResults<P> results) {
+        if (!results.isSuccess()) return;
+        if (!plugin.getConfigResource().getConfig().getBoolean("settings.preload-classes")) return;
+
+        MessagesResource.Message message = plugin.getMessagesResource().get(MessageKey.PRELOADED_CLASSES);
+        plugin.getPluginManager().preloadClasses(results.getPlugins()).thenAccept(preloadResults -> {
+            for (Map.Entry<String, ClassPreloader.Result> entry : preloadResults.entrySet()) {
+                ClassPreloader.Result preloadResult = entry.getValue();
+                sender.sendMessage(message.toComponent(
+                        "plugin", entry.getKey(),
+                        "count", String.valueOf(preloadResult.getClasses()),
+                        "duration", String.valueOf(preloadResult.getDurationMillis())
+                ));
+            }
+        });
     }
 
     protected boolean checkDependingPlugins(CommandContext<C> context, C sender, List<P> plugins, String subcommand) {
@@ -385,6 +425,103 @@ public abstract class CommandServerUtils<U extends ServerUtilsPlugin<P, ?, C, ?,
             String commandName
     );
 
+    private void handleTimings(CommandContext<C> context) {
+        C sender = context.getSender();
+        MessagesResource messages = plugin.getMessagesResource();
+
+        sender.sendMessage(messages.get(MessageKey.TIMINGS_HEADER).toComponent());
+        List<LifecycleTimings.Operation> operations = plugin.getPluginManager().getTimings().getOperations();
+        if (operations.isEmpty()) {
+            sender.sendMessage(messages.get(MessageKey.TIMINGS_EMPTY).toComponent());
+        }
+
+        MessagesResource.Message phaseMessage = messages.get(MessageKey.TIMINGS_PHASE);
+        Component separator = messages.get(MessageKey.TIMINGS_SEPARATOR).toComponent();
+        long now = System.currentTimeMillis();
+        for (LifecycleTimings.Operation operation : operations) {
+            sender.sendMessage(messages.get(MessageKey.TIMINGS_OPERATION).toComponent(
+                    "operation", operation.getName(),
+                    "duration", formatMillis(operation.getDurationNanos()),
+                    "ago", String.valueOf((now - operation.getStartMillis()) / 1000)
+            ));
+
+            for (Map.Entry<String, Map<String, Long>> entry : operation.getPluginPhases().entrySet()) {
+                TextComponent.Builder builder = Component.text();
+                builder.append(messages.get(MessageKey.TIMINGS_PLUGIN).toComponent("plugin", entry.getKey()));
+                builder.append(ListComponentBuilder.create(entry.getValue().entrySet())
+                        .format(phase -> phaseMessage.toComponent(
+                                "phase", phase.getKey(),
+                                "duration", formatMillis(phase.getValue())
+                        ))
+                        .separator(separator)
+                        .lastSeparator(separator)
+                        .build());
+                sender.sendMessage(builder.build());
+            }
+        }
+        sender.sendMessage(messages.get(MessageKey.TIMINGS_FOOTER).toComponent());
+    }
+
+    private void handleLeaks(CommandContext<C> context) {
+        C sender = context.getSender();
+        MessagesResource messages = plugin.getMessagesResource();
+
+        ClassLoaderLeakDetector leakDetector = plugin.getPluginManager().getLeakDetector();
+        int minGcCycles = plugin.getConfigResource().getConfig().getInt("settings.leak-detection-gc-cycles");
+        List<ClassLoaderLeakDetector.Leak> leaks = leakDetector.getLeaks(minGcCycles);
+
+        sender.sendMessage(messages.get(MessageKey.LEAKS_HEADER).toComponent());
+        if (leaks.isEmpty()) {
+            sender.sendMessage(messages.get(MessageKey.LEAKS_NONE).toComponent(
+                    "tracked", String.valueOf(leakDetector.getTrackedCount())
+            ));
+        }
+
+        long now = System.currentTimeMillis();
+        for (ClassLoaderLeakDetector.Leak leak : leaks) {
+            sender.sendMessage(messages.get(MessageKey.LEAKS_ENTRY).toComponent(
+                    "plugin", leak.getPluginId(),
+                    "ago", String.valueOf((now - leak.getUnloadMillis()) / 1000),
+                    "cycles", String.valueOf(leak.getGcCycles())
+            ));
+        }
+        sender.sendMessage(messages.get(MessageKey.LEAKS_FOOTER).toComponent());
+    }
+
+    private void handleMemory(CommandContext<C> context) {
+        C sender = context.getSender();
+        MessagesResource messages = plugin.getMessagesResource();
+
+        plugin.getPluginManager().getPluginFootprints().whenComplete((footprints, th) -> {
+            if (handleFailure(sender, th)) return;
+
+            sender.sendMessage(messages.get(MessageKey.MEMORY_HEADER).toComponent());
+            MessagesResource.Message entryMessage = messages.get(MessageKey.MEMORY_ENTRY);
+            for (Map.Entry<String, PluginFootprints.Footprint> entry : footprints.entrySet()) {
+                PluginFootprints.Footprint footprint = entry.getValue();
+                sender.sendMessage(entryMessage.toComponent(
+                        "plugin", entry.getKey(),
+                        "classes", footprint.getClasses() == PluginFootprints.UNKNOWN
+                                ? "?"
+                                : String.valueOf(footprint.getClasses()),
+                        "compressed", formatKibibytes(footprint.getCompressedSize()),
+                        "size", formatKibibytes(footprint.getSize()),
+                        "metaspace", formatKibibytes(footprint.getMetaspace())
+                ));
+            }
+            sender.sendMessage(messages.get(MessageKey.MEMORY_FOOTER).toComponent());
+        });
+    }
+
+    private static String formatKibibytes(long bytes) {
+        if (bytes == PluginFootprints.UNKNOWN) return "?";
+        return String.valueOf(bytes / 1024);
+    }
+
+    private static String formatMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.2f", nanos / 1_000_000D);
+    }
+
     private <T> void createInfo(C sender, String command, T item, InfoCreator<T> creator) {
         MessagesResource messages = plugin.getMessagesResource();
 
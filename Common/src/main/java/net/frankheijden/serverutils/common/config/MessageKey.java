@@ -7,6 +7,7 @@ public enum MessageKey implements PlaceholderConfigKey {
     RELOAD("reload", false),
     LOADPLUGIN("loadplugin"),
     UNLOADPLUGIN("unloadplugin"),
+    PRELOADED_CLASSES("preloaded-classes"),
     SERVERUTILS_UPDATER("serverutils-updater", false),
     RELOADPLUGIN_SUCCESS("reloadplugin.success"),
     RELOADPLUGIN_SERVERUTILS("reloadplugin.serverutils"),
@@ -34,6 +35,8 @@ public enum MessageKey implements PlaceholderConfigKey {
     WATCHPLUGIN_DELETED_FILE_IS_CREATED("watchplugin.deleted-file-is-created"),
     WATCHPLUGIN_ALREADY_WATCHING("watchplugin.already-watching"),
     WATCHPLUGIN_NOT_WATCHING("watchplugin.not-watching"),
+    WATCHPLUGIN_UNCHANGED("watchplugin.unchanged"),
+    WATCHPLUGIN_CHANGED_ENTRIES("watchplugin.changed-entries"),
     UPDATE_AVAILABLE("update.available"),
     UPDATE_DOWNLOADING("update.downloading"),
     UPDATE_DOWNLOAD_FAILED("update.download-failed"),
@@ -62,6 +65,20 @@ public enum MessageKey implements PlaceholderConfigKey {
     COMMANDINFO_LIST_LAST_SEPARATOR("commandinfo.list-last-separator", false),
     COMMANDINFO_FOOTER("commandinfo.footer", false),
     COMMANDINFO_NOT_EXISTS("commandinfo.not-exists", false),
+    TIMINGS_HEADER("timings.header", false),
+    TIMINGS_OPERATION("timings.operation"),
+    TIMINGS_PLUGIN("timings.plugin"),
+    TIMINGS_PHASE("timings.phase"),
+    TIMINGS_SEPARATOR("timings.separator", false),
+    TIMINGS_EMPTY("timings.empty", false),
+    TIMINGS_FOOTER("timings.footer", false),
+    LEAKS_HEADER("leaks.header", false),
+    LEAKS_ENTRY("leaks.entry"),
+    LEAKS_NONE("leaks.none"),
+    LEAKS_FOOTER("leaks.footer", false),
+    MEMORY_HEADER("memory.header", false),
+    MEMORY_ENTRY("memory.entry"),
+    MEMORY_FOOTER("memory.footer", false),
     ;
 
     private final String path;
@@ -0,0 +1,76 @@
+package net.frankheijden.serverutils.common.entities;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Objects;
+
+/**
+ * Identifies a specific revision of a file by its absolute path, size and modification time.
+ */
+public final class FileFingerprint {
+
+    private final String path;
+    private final long size;
+    private final long lastModified;
+
+    /**
+     * Constructs a new FileFingerprint.
+     */
+    public FileFingerprint(String path, long size, long lastModified) {
+        this.path = path;
+        this.size = size;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Creates a fingerprint of the given file using a single attribute lookup.
+     * @return The fingerprint, or null if the file does not exist (anymore).
+     */
+    public static FileFingerprint of(File file) {
+        File absoluteFile = file.getAbsoluteFile();
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(absoluteFile.toPath(), BasicFileAttributes.class);
+        } catch (IOException ex) {
+            return null;
+        }
+
+        return new FileFingerprint(
+                absoluteFile.getPath(),
+                attributes.size(),
+                attributes.lastModifiedTime().toMillis()
+        );
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        FileFingerprint that = (FileFingerprint) o;
+        return size == that.size && lastModified == that.lastModified && path.equals(that.path);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(path, size, lastModified);
+    }
+
+    @Override
+    public String toString() {
+        return path + " (" + size + " bytes, modified " + lastModified + ")";
+    }
+}
@@ -0,0 +1,70 @@
+package net.frankheijden.serverutils.common.entities;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * The order in which a set of plugins must be handled, grouped into dependency "waves".
+ * No element of a wave depends on another element of the same wave, such that stages which are safe to run
+ * off the main thread can handle an entire wave concurrently.
+ */
+public class LoadPlan<T> {
+
+    private final List<T> order;
+    private final List<List<T>> waves;
+
+    /**
+     * Constructs a new LoadPlan.
+     * @param order The sequential (topological) order.
+     * @param waves The elements of the order, grouped by dependency level.
+     */
+    public LoadPlan(List<T> order, List<List<T>> waves) {
+        this.order = Collections.unmodifiableList(order);
+        List<List<T>> unmodifiableWaves = new ArrayList<>(waves.size());
+        for (List<T> wave : waves) {
+            unmodifiableWaves.add(Collections.unmodifiableList(wave));
+        }
+        this.waves = Collections.unmodifiableList(unmodifiableWaves);
+    }
+
+    /**
+     * Creates a plan which handles each element in its own wave.
+     */
+    public static <T> LoadPlan<T> sequential(List<T> order) {
+        List<List<T>> waves = new ArrayList<>(order.size());
+        for (T element : order) {
+            waves.add(Collections.singletonList(element));
+        }
+        return new LoadPlan<>(order, waves);
+    }
+
+    public List<T> getOrder() {
+        return order;
+    }
+
+    public List<List<T>> getWaves() {
+        return waves;
+    }
+
+    /**
+     * Maps each element of the plan, retaining the order and waves.
+     */
+    public <R> LoadPlan<R> map(Function<? super T, ? extends R> mapper) {
+        List<R> mappedOrder = new ArrayList<>(order.size());
+        for (T element : order) {
+            mappedOrder.add(mapper.apply(element));
+        }
+
+        List<List<R>> mappedWaves = new ArrayList<>(waves.size());
+        for (List<T> wave : waves) {
+            List<R> mappedWave = new ArrayList<>(wave.size());
+            for (T element : wave) {
+                mappedWave.add(mapper.apply(element));
+            }
+            mappedWaves.add(mappedWave);
+        }
+        return new LoadPlan<>(mappedOrder, mappedWaves);
+    }
+}
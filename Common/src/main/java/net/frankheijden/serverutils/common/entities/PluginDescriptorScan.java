@@ -0,0 +1,37 @@
+package net.frankheijden.serverutils.common.entities;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Snapshot of the descriptions found in a set of plugin jars, including the jars which could not be parsed.
+ */
+public class PluginDescriptorScan<D extends ServerUtilsPluginDescription> {
+
+    private final Map<String, D> descriptions;
+    private final Map<File, Throwable> errors;
+
+    /**
+     * Constructs a new PluginDescriptorScan.
+     * @param descriptions The descriptions found, keyed by plugin id.
+     * @param errors The exceptions thrown while parsing, keyed by jar file.
+     */
+    public PluginDescriptorScan(Map<String, D> descriptions, Map<File, Throwable> errors) {
+        this.descriptions = Collections.unmodifiableMap(descriptions);
+        this.errors = Collections.unmodifiableMap(errors);
+    }
+
+    public Map<String, D> getDescriptions() {
+        return descriptions;
+    }
+
+    public Optional<D> getDescription(String pluginId) {
+        return Optional.ofNullable(descriptions.get(pluginId));
+    }
+
+    public Map<File, Throwable> getErrors() {
+        return errors;
+    }
+}
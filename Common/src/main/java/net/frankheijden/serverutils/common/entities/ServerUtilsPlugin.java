@@ -23,6 +23,7 @@ import net.frankheijden.serverutils.common.entities.results.CloseablePluginResul
 import net.frankheijden.serverutils.common.entities.results.PluginResults;
 import net.frankheijden.serverutils.common.managers.AbstractPluginManager;
 import net.frankheijden.serverutils.common.managers.AbstractTaskManager;
+import net.frankheijden.serverutils.common.managers.PluginDescriptorIndex;
 import net.frankheijden.serverutils.common.managers.UpdateManager;
 import net.frankheijden.serverutils.common.managers.WatchManager;
 import net.frankheijden.serverutils.common.providers.ResourceProvider;
@@ -165,9 +166,15 @@ public abstract class ServerUtilsPlugin<P, T, C extends ServerUtilsAudience<S>,
 
     }
 
+    /**
+     * Disables the plugin.
+     */
     public final void disable() {
         disablePlugin();
         getTaskManager().cancelAllTasks();
+        PluginDescriptorIndex<?> descriptorIndex = getPluginManager().getDescriptorIndex();
+        descriptorIndex.shutdown();
+        descriptorIndex.saveIfDirty();
     }
 
     protected void disablePlugin() {
@@ -25,6 +25,10 @@ public class CloseablePluginResult<T> extends PluginResult<T> implements Closeab
         this.closeables = closeables;
     }
 
+    public List<Closeable> getCloseables() {
+        return closeables;
+    }
+
     /**
      * Attempts to close the closable, essentially wrapping it with try-catch.
      */
@@ -4,6 +4,10 @@ import java.io.Closeable;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
+import net.frankheijden.serverutils.common.ServerUtilsApp;
+import net.frankheijden.serverutils.common.managers.AbstractPluginManager;
+import net.frankheijden.serverutils.common.utils.ClassLoaderLeakDetector;
+import net.frankheijden.serverutils.common.utils.LifecycleTimings;
 
 public class CloseablePluginResults<T> extends PluginResults<T> implements Closeable {
 
@@ -78,13 +82,28 @@ public class CloseablePluginResults<T> extends PluginResults<T> implements Close
         }
     }
 
+    /**
+     * Closes the {@link CloseablePluginResult}'s enclosed, and tracks their classloaders for leaks.
+     * Garbage collection is not forced; unreferenced classloaders are collected during natural GC cycles.
+     */
     @Override
     public void close() throws IOException {
+        AbstractPluginManager<?, ?> pluginManager = ServerUtilsApp.getPlugin().getPluginManager();
+        LifecycleTimings timings = pluginManager.getTimings();
+        ClassLoaderLeakDetector leakDetector = pluginManager.getLeakDetector();
         for (PluginResult<T> pluginResult : this) {
             if (pluginResult instanceof CloseablePluginResult) {
-                ((CloseablePluginResult<T>) pluginResult).close();
+                CloseablePluginResult<T> closeableResult = (CloseablePluginResult<T>) pluginResult;
+                long start = System.nanoTime();
+                closeableResult.close();
+                timings.record(pluginResult.getPluginId(), "close-classloader", System.nanoTime() - start);
+
+                for (Closeable closeable : closeableResult.getCloseables()) {
+                    if (closeable instanceof ClassLoader) {
+                        leakDetector.track(pluginResult.getPluginId(), (ClassLoader) closeable);
+                    }
+                }
             }
         }
-        System.gc();
     }
 }
@@ -15,6 +15,8 @@ public enum WatchResult implements AbstractResult {
     FILE_DELETED(MessageKey.WATCHPLUGIN_FILE_DELETED),
     DELETED_FILE_IS_CREATED(MessageKey.WATCHPLUGIN_DELETED_FILE_IS_CREATED),
     STOPPED(MessageKey.WATCHPLUGIN_STOPPED),
+    UNCHANGED(MessageKey.WATCHPLUGIN_UNCHANGED),
+    CHANGED_ENTRIES(MessageKey.WATCHPLUGIN_CHANGED_ENTRIES),
     ;
 
     private final ConfigKey key;
@@ -0,0 +1,104 @@
+package net.frankheijden.serverutils.common.jfr;
+
+import java.util.Locale;
+import java.util.StringJoiner;
+import net.frankheijden.serverutils.common.entities.results.PluginResult;
+import net.frankheijden.serverutils.common.entities.results.PluginResults;
+import net.frankheijden.serverutils.common.entities.results.Result;
+
+/**
+ * Emits Flight Recorder events for plugin lifecycle operations.
+ * This base implementation does nothing; on JDK 11+ the JFR backed implementation (compiled separately against
+ * Java 11) is loaded reflectively, such that the Java 8 baseline never links against {@code jdk.jfr}.
+ */
+public class LifecycleEvents {
+
+    private static final String JFR_EVENT_CLASS = "jdk.jfr.Event";
+    private static final String JFR_IMPLEMENTATION_CLASS = "net.frankheijden.serverutils.common.jfr.JfrLifecycleEvents";
+    private static final LifecycleEvents instance = create();
+
+    protected LifecycleEvents() {}
+
+    public static LifecycleEvents get() {
+        return instance;
+    }
+
+    private static LifecycleEvents create() {
+        ClassLoader loader = LifecycleEvents.class.getClassLoader();
+        try {
+            Class.forName(JFR_EVENT_CLASS, false, loader);
+            return (LifecycleEvents) Class.forName(JFR_IMPLEMENTATION_CLASS, true, loader)
+                    .getDeclaredConstructor()
+                    .newInstance();
+        } catch (ReflectiveOperationException | LinkageError ex) {
+            // No JFR available, or running below Java 11
+            return new LifecycleEvents();
+        }
+    }
+
+    /**
+     * Begins an event of the given type. The event must be ended through {@link Event#end(String, String)}.
+     */
+    public Event begin(Type type) {
+        return Event.NOOP;
+    }
+
+    /**
+     * Runs the given runnable as an event of the given type, with a result of either SUCCESS or ERROR.
+     */
+    public void run(Type type, String pluginId, Runnable runnable) {
+        Event event = begin(type);
+        Result result = Result.ERROR;
+        try {
+            runnable.run();
+            result = Result.SUCCESS;
+        } finally {
+            event.end(pluginId, result.name());
+        }
+    }
+
+    public enum Type {
+        LOAD,
+        ENABLE,
+        DISABLE,
+        UNLOAD,
+        RELOAD,
+        COMMAND_SYNC,
+        RECIPE_REMOVAL,
+        WATCHER_RELOAD,
+        ;
+
+        public String getName() {
+            return name().toLowerCase(Locale.ROOT).replace('_', '-');
+        }
+    }
+
+    public interface Event {
+
+        Event NOOP = (pluginId, result) -> {};
+
+        /**
+         * Ends and commits the event.
+         * @param pluginId The plugin id(s) the event applies to.
+         * @param result The result of the operation.
+         */
+        void end(String pluginId, String result);
+
+        /**
+         * Ends and commits the event, deriving the plugin ids and result from the given results.
+         * A null value indicates the operation did not complete.
+         */
+        default void end(PluginResults<?> results) {
+            if (results == null || results.getResults().isEmpty()) {
+                end(null, Result.ERROR.name());
+                return;
+            }
+
+            StringJoiner pluginIds = new StringJoiner(", ");
+            for (PluginResult<?> result : results) {
+                pluginIds.add(result.getPluginId());
+            }
+            end(pluginIds.toString(), (results.isSuccess() ? Result.SUCCESS : results.last().getResult()).name());
+        }
+    }
+}
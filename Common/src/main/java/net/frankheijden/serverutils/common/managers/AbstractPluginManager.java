@@ -1,15 +1,23 @@
 package net.frankheijden.serverutils.common.managers;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import net.frankheijden.serverutils.common.ServerUtilsApp;
+import net.frankheijden.serverutils.common.entities.LoadPlan;
+import net.frankheijden.serverutils.common.entities.PluginDescriptorScan;
 import net.frankheijden.serverutils.common.entities.results.CloseablePluginResult;
 import net.frankheijden.serverutils.common.entities.results.CloseablePluginResults;
 import net.frankheijden.serverutils.common.entities.results.PluginResult;
@@ -17,11 +25,165 @@ import net.frankheijden.serverutils.common.entities.results.PluginResults;
 import net.frankheijden.serverutils.common.entities.results.Result;
 import net.frankheijden.serverutils.common.entities.ServerUtilsPluginDescription;
 import net.frankheijden.serverutils.common.entities.exceptions.InvalidPluginDescriptionException;
+import net.frankheijden.serverutils.common.jfr.LifecycleEvents;
 import net.frankheijden.serverutils.common.providers.PluginProvider;
+import net.frankheijden.serverutils.common.utils.ClassLoaderLeakDetector;
+import net.frankheijden.serverutils.common.utils.ClassPreloader;
+import net.frankheijden.serverutils.common.utils.DependencyGraph;
+import net.frankheijden.serverutils.common.utils.LifecycleTimings;
+import net.frankheijden.serverutils.common.utils.PluginFootprints;
 import net.frankheijden.serverutils.common.utils.DependencyUtils;
 
 public abstract class AbstractPluginManager<P, D extends ServerUtilsPluginDescription> implements PluginProvider<P, D> {
 
+    private static final String DESCRIPTOR_INDEX_FILE = ".pluginDescriptorIndex.json";
+    private static final long DESCRIPTOR_INDEX_SAVE_DELAY_TICKS = 100;
+
+    private final Map<String, LoadedDescription<P, D>> loadedDescriptions = new ConcurrentHashMap<>();
+    private final DependencyGraph dependencyGraph = new DependencyGraph();
+    private final ClassLoaderLeakDetector leakDetector = new ClassLoaderLeakDetector();
+    private final PluginFootprints footprints = new PluginFootprints();
+    private PluginDescriptorIndex<D> descriptorIndex;
+    private LifecycleTimings timings;
+    private boolean dependencyGraphBuilt = false;
+
+    /**
+     * Retrieves the index of plugin jars, loading it from the data folder on first access.
+     */
+    public synchronized PluginDescriptorIndex<D> getDescriptorIndex() {
+        if (descriptorIndex == null) {
+            descriptorIndex = PluginDescriptorIndex.load(
+                    ServerUtilsApp.getPlugin().getDataFolder().toPath().resolve(DESCRIPTOR_INDEX_FILE),
+                    this::parsePluginDescription,
+                    save -> ServerUtilsApp.getPlugin().getTaskManager().runTaskLaterAsynchronously(
+                            save,
+                            DESCRIPTOR_INDEX_SAVE_DELAY_TICKS
+                    )
+            );
+        }
+        return descriptorIndex;
+    }
+
+    public ClassLoaderLeakDetector getLeakDetector() {
+        return leakDetector;
+    }
+
+    public PluginFootprints getFootprints() {
+        return footprints;
+    }
+
+    /**
+     * Retrieves the timings of the last plugin lifecycle operations.
+     * The amount of operations kept is configured on first access.
+     */
+    public synchronized LifecycleTimings getTimings() {
+        if (timings == null) {
+            int history = ServerUtilsApp.getPlugin().getConfigResource().getConfig().getInt("settings.timings-history");
+            timings = new LifecycleTimings(Math.max(1, history));
+        }
+        return timings;
+    }
+
+    @Override
+    public Optional<File> getPluginFile(String pluginId) {
+        return getDescriptorIndex().getFile(pluginId, getPluginJars());
+    }
+
+    @Override
+    public Optional<D> getPluginDescription(File file) throws InvalidPluginDescriptionException {
+        return getDescriptorIndex().getDescription(file);
+    }
+
+    @Override
+    public abstract String getPluginId(P plugin);
+
+    /**
+     * Retrieves the description of a loaded plugin.
+     * One description is kept per loaded plugin instance, until the plugin is unloaded.
+     */
+    @Override
+    public D getLoadedPluginDescription(P plugin) {
+        String pluginId = getPluginId(plugin);
+        LoadedDescription<P, D> loadedDescription = loadedDescriptions.get(pluginId);
+        if (loadedDescription != null && loadedDescription.plugin == plugin) return loadedDescription.description;
+
+        D description = createLoadedPluginDescription(plugin);
+        loadedDescriptions.put(pluginId, new LoadedDescription<>(plugin, description));
+        return description;
+    }
+
+    /**
+     * Creates the description of a loaded plugin. Use {@link #getLoadedPluginDescription(Object)} instead.
+     */
+    protected abstract D createLoadedPluginDescription(P plugin);
+
+    /**
+     * Retrieves the dependency graph of the loaded plugins.
+     * The graph is built on first access and updated when plugins are loaded or unloaded through this manager.
+     * It is rebuilt if its size diverges from the loaded plugins, e.g. when plugins were loaded by other means.
+     */
+    public synchronized DependencyGraph getDependencyGraph() {
+        List<P> plugins = getPlugins();
+        if (!dependencyGraphBuilt || dependencyGraph.size() != plugins.size()) {
+            dependencyGraph.clear();
+            for (P plugin : plugins) {
+                dependencyGraph.add(getPluginId(plugin), getLoadedPluginDescription(plugin).getDependencies());
+            }
+            dependencyGraphBuilt = true;
+        }
+        return dependencyGraph;
+    }
+
+    private synchronized void updateDependencyGraph(PluginResults<P> results, boolean loaded) {
+        if (!dependencyGraphBuilt) return;
+        for (PluginResult<P> result : results) {
+            if (!result.isSuccess() || result.getPlugin() == null) continue;
+
+            if (loaded) {
+                P plugin = result.getPlugin();
+                dependencyGraph.add(getPluginId(plugin), getLoadedPluginDescription(plugin).getDependencies());
+            } else {
+                dependencyGraph.remove(result.getPluginId());
+            }
+        }
+    }
+
+    @Override
+    public List<P> getPluginsDependingOn(String pluginId) {
+        Set<String> dependentIds = getDependencyGraph().getDependents(pluginId);
+        List<P> plugins = new ArrayList<>(dependentIds.size());
+        for (String dependentId : dependentIds) {
+            getPlugin(dependentId).ifPresent(plugins::add);
+        }
+        return plugins;
+    }
+
+    /**
+     * Runs the given lifecycle operation, recording its timings and emitting a lifecycle event.
+     */
+    private <R extends PluginResults<P>> R operation(LifecycleEvents.Type type, Supplier<R> supplier) {
+        LifecycleEvents.Event event = LifecycleEvents.get().begin(type);
+        R results = null;
+        try {
+            results = getTimings().operation(type.getName(), supplier);
+            return results;
+        } finally {
+            event.end(results);
+        }
+    }
+
+    /**
+     * Resolves the descriptions of all jars in the plugins folder in parallel.
+     */
+    public PluginDescriptorScan<D> scanPluginDescriptions() {
+        return getDescriptorIndex().scan(getPluginJars());
+    }
+
+    /**
+     * Parses the description of the given jar file, without consulting the descriptor index.
+     */
+    protected abstract Optional<D> parsePluginDescription(File file) throws InvalidPluginDescriptionException;
+
     /**
      * Loads the given plugin by their jar file.
      */
@@ -39,6 +201,47 @@ public abstract class AbstractPluginManager<P, D extends ServerUtilsPluginDescri
      * Loads a list of files as plugins.
      */
     public PluginResults<P> loadPlugins(List<File> files) {
+        return operation(LifecycleEvents.Type.LOAD, () -> {
+            Stage<P, LoadPlan<D>> prepared = prepareLoad(files);
+            if (prepared.isFailed()) return prepared.failure;
+            return completeLoad(prepared.value);
+        });
+    }
+
+    /**
+     * Loads a list of files as plugins, reading and ordering their descriptions on an asynchronous thread.
+     * Only the platform load itself is executed on the main thread.
+     * @return A future which completes with the load results on the main thread.
+     */
+    public CompletableFuture<PluginResults<P>> loadPluginsAsync(List<File> files) {
+        LifecycleTimings timings = getTimings();
+        LifecycleTimings.Operation operation = timings.begin(LifecycleEvents.Type.LOAD.getName());
+        LifecycleEvents.Event event = LifecycleEvents.get().begin(LifecycleEvents.Type.LOAD);
+        AbstractTaskManager<?> taskManager = ServerUtilsApp.getPlugin().getTaskManager();
+        return taskManager.supplyAsync(() -> timings.attach(operation, () -> prepareLoad(files)))
+                .thenCompose(prepared -> prepared.isFailed()
+                        ? CompletableFuture.completedFuture(prepared.failure)
+                        : taskManager.supplySync(() -> timings.attach(operation, () -> completeLoad(prepared.value))))
+                .whenComplete((results, th) -> {
+                    timings.finish(operation);
+                    event.end(results);
+                });
+    }
+
+    /**
+     * Scans, parses and orders the descriptions of the given files. This stage is safe to run off the main thread,
+     * hence does not access the plugins of the platform.
+     */
+    private Stage<P, LoadPlan<D>> prepareLoad(List<File> files) {
+        return getTimings().time(LifecycleTimings.ALL_PLUGINS, "prepare", () -> resolveLoadPlan(files));
+    }
+
+    private Stage<P, LoadPlan<D>> resolveLoadPlan(List<File> files) {
+        if (files.size() > 1) {
+            // Warms up the index in parallel, invalid descriptions are reported below
+            getDescriptorIndex().scan(files.toArray(new File[0]));
+        }
+
         List<D> descriptions = new ArrayList<>(files.size());
 
         for (File file : files) {
@@ -46,24 +249,19 @@ public abstract class AbstractPluginManager<P, D extends ServerUtilsPluginDescri
             try {
                 Optional<D> descriptionOptional = getPluginDescription(file);
                 if (!descriptionOptional.isPresent()) {
-                    return new PluginResults<P>().addResult(file.getName(), Result.NOT_EXISTS);
+                    return Stage.failed(new PluginResults<P>().addResult(file.getName(), Result.NOT_EXISTS));
                 }
 
                 description = descriptionOptional.get();
             } catch (InvalidPluginDescriptionException ex) {
-                return new PluginResults<P>().addResult(file.getName(), Result.INVALID_DESCRIPTION);
-            }
-
-            if (getPlugin(description.getId()).isPresent()) {
-                return new PluginResults<P>().addResult(description.getId(), Result.ALREADY_LOADED);
+                return Stage.failed(new PluginResults<P>().addResult(file.getName(), Result.INVALID_DESCRIPTION));
             }
 
             descriptions.add(description);
         }
 
-        List<D> orderedDescriptions;
         try {
-            orderedDescriptions = determineLoadOrder(descriptions);
+            return Stage.of(determineLoadPlan(descriptions));
         } catch (IllegalStateException ex) {
             ex.printStackTrace();
 
@@ -72,14 +270,124 @@ public abstract class AbstractPluginManager<P, D extends ServerUtilsPluginDescri
                 sb.append(", ").append(file.getName());
             }
 
-            return new PluginResults<P>().addResult(sb.substring(2), Result.ERROR);
+            return Stage.failed(new PluginResults<P>().addResult(sb.substring(2), Result.ERROR));
+        }
+    }
+
+    /**
+     * Loads the plugins of the given plan on the main thread, unless any of them is already loaded.
+     */
+    private PluginResults<P> completeLoad(LoadPlan<D> loadPlan) {
+        for (D description : loadPlan.getOrder()) {
+            if (getPlugin(description.getId()).isPresent()) {
+                return new PluginResults<P>().addResult(description.getId(), Result.ALREADY_LOADED);
+            }
         }
 
-        return loadPluginDescriptions(orderedDescriptions);
+        PluginResults<P> loadResults = loadPluginDescriptions(loadPlan);
+        updateDependencyGraph(loadResults, true);
+        return loadResults;
     }
 
     protected abstract PluginResults<P> loadPluginDescriptions(List<D> descriptions);
 
+    /**
+     * Loads the descriptions of the given plan.
+     * Implementations may override this to run stages which are safe to run concurrently per wave.
+     */
+    protected PluginResults<P> loadPluginDescriptions(LoadPlan<D> loadPlan) {
+        return loadPluginDescriptions(loadPlan.getOrder());
+    }
+
+    /**
+     * Retrieves the classloader which loaded the given plugin, or null if the plugin has no instance.
+     */
+    public ClassLoader getPluginClassLoader(P plugin) {
+        Object instance = getInstance(plugin);
+        return instance == null ? null : instance.getClass().getClassLoader();
+    }
+
+    /**
+     * Resolves all classes of the given plugins through their classloader on an asynchronous task,
+     * such that they are not loaded lazily on the main thread once they are first used.
+     * Classes are not initialized. Plugins without jar file or classloader are omitted from the result.
+     * @return A future completing with the preload result per plugin id.
+     */
+    public CompletableFuture<Map<String, ClassPreloader.Result>> preloadClasses(List<P> plugins) {
+        Map<String, File> files = new LinkedHashMap<>(plugins.size());
+        Map<String, ClassLoader> loaders = new HashMap<>(plugins.size());
+        for (P plugin : plugins) {
+            File file = getPluginFile(plugin);
+            ClassLoader loader = getPluginClassLoader(plugin);
+            if (file == null || loader == null) continue;
+
+            String pluginId = getPluginId(plugin);
+            files.put(pluginId, file);
+            loaders.put(pluginId, loader);
+        }
+
+        return ServerUtilsApp.getPlugin().getTaskManager().supplyAsync(() -> {
+            Map<String, ClassPreloader.Result> results = new LinkedHashMap<>(files.size());
+            for (Map.Entry<String, File> entry : files.entrySet()) {
+                String pluginId = entry.getKey();
+                try {
+                    results.put(pluginId, ClassPreloader.preload(entry.getValue().toPath(), loaders.get(pluginId)));
+                } catch (IOException | RuntimeException ex) {
+                    ex.printStackTrace();
+                }
+            }
+            return results;
+        });
+    }
+
+    /**
+     * Retrieves the amount of classes loaded by the given plugin classloader.
+     * @return The amount of classes, or {@link PluginFootprints#UNKNOWN} if the platform does not expose them.
+     */
+    protected long getLoadedClassCount(ClassLoader loader) {
+        return PluginFootprints.UNKNOWN;
+    }
+
+    /**
+     * Retrieves the memory footprint of all loaded plugins, keyed by plugin id.
+     * The footprints are gathered on an asynchronous task, and cached for the configured amount of seconds.
+     * Plugins without jar file are omitted from the result.
+     */
+    public CompletableFuture<Map<String, PluginFootprints.Footprint>> getPluginFootprints() {
+        long cacheSeconds = ServerUtilsApp.getPlugin().getConfigResource().getConfig()
+                .getInt("settings.memory-report-cache-seconds");
+        return footprints.getReport(cacheSeconds * 1000L, () -> {
+            Map<String, File> files = new LinkedHashMap<>();
+            Map<String, ClassLoader> loaders = new HashMap<>();
+            for (P plugin : getPluginsSorted()) {
+                File file = getPluginFile(plugin);
+                if (file == null) continue;
+
+                String pluginId = getPluginId(plugin);
+                files.put(pluginId, file);
+                loaders.put(pluginId, getPluginClassLoader(plugin));
+            }
+
+            return ServerUtilsApp.getPlugin().getTaskManager().supplyAsync(() -> {
+                Map<String, PluginFootprints.Footprint> results = new LinkedHashMap<>(files.size());
+                for (Map.Entry<String, File> entry : files.entrySet()) {
+                    String pluginId = entry.getKey();
+                    ClassLoader loader = loaders.get(pluginId);
+                    try {
+                        results.put(pluginId, PluginFootprints.measure(
+                                entry.getValue(),
+                                loader == null ? PluginFootprints.UNKNOWN : getLoadedClassCount(loader),
+                                footprints.getMetaspaceDelta(pluginId)
+                        ));
+                    } catch (IOException | RuntimeException ex) {
+                        ex.printStackTrace();
+                    }
+                }
+                return results;
+            });
+        });
+    }
+
     /**
      * Enables the given plugin by name.
      */
@@ -97,12 +405,22 @@ public abstract class AbstractPluginManager<P, D extends ServerUtilsPluginDescri
      * Enables a list of plugins.
      */
     public PluginResults<P> enablePlugins(List<P> plugins) {
-        Optional<P> pluginOptional = checkPluginStates(plugins, false);
-        if (pluginOptional.isPresent()) {
-            return new PluginResults<P>().addResult(getPluginId(pluginOptional.get()), Result.ALREADY_ENABLED);
-        }
+        return operation(LifecycleEvents.Type.ENABLE, () -> {
+            Optional<P> pluginOptional = checkPluginStates(plugins, false);
+            if (pluginOptional.isPresent()) {
+                return new PluginResults<P>().addResult(getPluginId(pluginOptional.get()), Result.ALREADY_ENABLED);
+            }
+
+            return enableOrderedPlugins(determineLoadOrder(plugins));
+        });
+    }
 
-        return enableOrderedPlugins(determineLoadOrder(plugins));
+    /**
+     * Enables a list of plugins on the main thread.
+     * @return A future which completes with the enable results on the main thread.
+     */
+    public CompletableFuture<PluginResults<P>> enablePluginsAsync(List<P> plugins) {
+        return ServerUtilsApp.getPlugin().getTaskManager().supplySync(() -> enablePlugins(plugins));
     }
 
     protected abstract PluginResults<P> enableOrderedPlugins(List<P> plugins);
@@ -143,6 +461,10 @@ public abstract class AbstractPluginManager<P, D extends ServerUtilsPluginDescri
      * Disables a list of plugins.
      */
     public PluginResults<P> disablePlugins(List<P> plugins) {
+        return operation(LifecycleEvents.Type.DISABLE, () -> performDisable(plugins));
+    }
+
+    private PluginResults<P> performDisable(List<P> plugins) {
         Optional<P> pluginOptional = checkPluginStates(plugins, true);
         if (pluginOptional.isPresent()) {
             return new PluginResults<P>().addResult(getPluginId(pluginOptional.get()), Result.ALREADY_DISABLED);
@@ -185,38 +507,94 @@ public abstract class AbstractPluginManager<P, D extends ServerUtilsPluginDescri
      * Reloads the given plugins.
      */
     public PluginResults<P> reloadPlugins(List<P> plugins) {
-        PluginResults<P> disableResults = disablePlugins(plugins);
-        for (PluginResult<P> disableResult : disableResults.getResults()) {
-            if (!disableResult.isSuccess() && disableResult.getResult() != Result.ALREADY_DISABLED) {
-                return disableResults;
-            }
-        }
+        return operation(LifecycleEvents.Type.RELOAD, () -> {
+            Stage<P, LoadPlan<D>> prepared = prepareReload(getPluginIds(plugins));
+            if (prepared.isFailed()) return prepared.failure;
+
+            return reloadPrepared(plugins, prepared.value);
+        });
+    }
 
+    /**
+     * Reloads the given plugins, locating and reading their jars on an asynchronous thread first.
+     * Disabling, unloading, loading and enabling is then done within a single main thread task,
+     * such that the plugins are not absent for any tick.
+     * @return A future which completes with the reload results.
+     */
+    public CompletableFuture<PluginResults<P>> reloadPluginsAsync(List<P> plugins) {
+        LifecycleTimings timings = getTimings();
+        LifecycleTimings.Operation operation = timings.begin(LifecycleEvents.Type.RELOAD.getName());
+        LifecycleEvents.Event event = LifecycleEvents.get().begin(LifecycleEvents.Type.RELOAD);
+        AbstractTaskManager<?> taskManager = ServerUtilsApp.getPlugin().getTaskManager();
+        List<String> pluginIds = getPluginIds(plugins);
+        return taskManager.supplyAsync(() -> timings.attach(operation, () -> prepareReload(pluginIds)))
+                .thenCompose(prepared -> prepared.isFailed()
+                        ? CompletableFuture.completedFuture(prepared.failure)
+                        : taskManager.supplySync(() -> timings.attach(
+                                operation,
+                                () -> reloadPrepared(plugins, prepared.value)
+                        )))
+                .whenComplete((results, th) -> {
+                    timings.finish(operation);
+                    event.end(results);
+                });
+    }
+
+    private List<String> getPluginIds(List<P> plugins) {
         List<String> pluginIds = new ArrayList<>(plugins.size());
         for (P plugin : plugins) {
             pluginIds.add(getPluginId(plugin));
         }
+        return pluginIds;
+    }
+
+    private PluginResults<P> reloadPrepared(List<P> plugins, LoadPlan<D> loadPlan) {
+        Stage<P, Void> unloaded = disableAndUnload(plugins);
+        if (unloaded.isFailed()) return unloaded.failure;
+
+        return completeReload(loadPlan);
+    }
+
+    private Stage<P, Void> disableAndUnload(List<P> plugins) {
+        PluginResults<P> disableResults = disablePlugins(plugins);
+        for (PluginResult<P> disableResult : disableResults.getResults()) {
+            if (!disableResult.isSuccess() && disableResult.getResult() != Result.ALREADY_DISABLED) {
+                return Stage.failed(disableResults);
+            }
+        }
 
         CloseablePluginResults<P> unloadResults = unloadPlugins(plugins);
-        if (!unloadResults.isSuccess()) return unloadResults;
+        if (!unloadResults.isSuccess()) return Stage.failed(unloadResults);
         unloadResults.tryClose();
+        return Stage.of(null);
+    }
+
+    private Stage<P, LoadPlan<D>> prepareReload(List<String> pluginIds) {
+        Stage<P, List<File>> located = getTimings().time(
+                LifecycleTimings.ALL_PLUGINS,
+                "locate-files",
+                () -> locatePluginFiles(pluginIds)
+        );
+        if (located.isFailed()) return Stage.failed(located.failure);
+        return prepareLoad(located.value);
+    }
 
-        List<File> pluginFiles = new ArrayList<>(plugins.size());
+    private Stage<P, List<File>> locatePluginFiles(List<String> pluginIds) {
+        List<File> pluginFiles = new ArrayList<>(pluginIds.size());
         for (String pluginId : pluginIds) {
             Optional<File> pluginFile = getPluginFile(pluginId);
-            if (!pluginFile.isPresent()) return new PluginResults<P>().addResult(pluginId, Result.FILE_DELETED);
+            if (!pluginFile.isPresent()) {
+                return Stage.failed(new PluginResults<P>().addResult(pluginId, Result.FILE_DELETED));
+            }
             pluginFiles.add(pluginFile.get());
         }
+        return Stage.of(pluginFiles);
+    }
 
-        PluginResults<P> loadResults = loadPlugins(pluginFiles);
+    private PluginResults<P> completeReload(LoadPlan<D> loadPlan) {
+        PluginResults<P> loadResults = completeLoad(loadPlan);
         if (!loadResults.isSuccess()) return loadResults;
-
-        List<P> loadedPlugins = new ArrayList<>(pluginIds.size());
-        for (PluginResult<P> loadResult : loadResults) {
-            loadedPlugins.add(loadResult.getPlugin());
-        }
-
-        return enablePlugins(loadedPlugins);
+        return enablePlugins(loadResults.getPlugins());
     }
 
     /**
@@ -236,6 +614,10 @@ public abstract class AbstractPluginManager<P, D extends ServerUtilsPluginDescri
      * Unloads a list of plugins.
      */
     public CloseablePluginResults<P> unloadPlugins(List<P> plugins) {
+        return operation(LifecycleEvents.Type.UNLOAD, () -> performUnload(plugins));
+    }
+
+    private CloseablePluginResults<P> performUnload(List<P> plugins) {
         List<P> orderedPlugins;
         try {
             orderedPlugins = determineLoadOrder(plugins);
@@ -251,7 +633,15 @@ public abstract class AbstractPluginManager<P, D extends ServerUtilsPluginDescri
         }
 
         Collections.reverse(orderedPlugins);
-        return unloadOrderedPlugins(orderedPlugins);
+        CloseablePluginResults<P> unloadResults = unloadOrderedPlugins(orderedPlugins);
+        for (PluginResult<P> unloadResult : unloadResults) {
+            if (unloadResult.isSuccess()) {
+                loadedDescriptions.remove(unloadResult.getPluginId());
+                footprints.forget(unloadResult.getPluginId());
+            }
+        }
+        updateDependencyGraph(unloadResults, false);
+        return unloadResults;
     }
 
     public abstract CloseablePluginResults<P> unloadOrderedPlugins(List<P> plugins);
@@ -260,23 +650,35 @@ public abstract class AbstractPluginManager<P, D extends ServerUtilsPluginDescri
      * Determines the load order of a list of plugins.
      */
     public List<P> determineLoadOrder(List<P> plugins) throws IllegalStateException {
+        return determineLoadPlan(plugins).getOrder();
+    }
+
+    /**
+     * Determines the load order for a given collection of descriptions.
+     * @throws IllegalStateException Iff circular dependency
+     */
+    public List<D> determineLoadOrder(Collection<? extends D> descriptions) throws IllegalStateException {
+        return determineLoadPlan(descriptions).getOrder();
+    }
+
+    /**
+     * Determines the load plan of a list of plugins.
+     * @throws IllegalStateException Iff circular dependency
+     */
+    public LoadPlan<P> determineLoadPlan(List<P> plugins) throws IllegalStateException {
         Map<D, P> descriptionMap = new HashMap<>(plugins.size());
         for (P plugin : plugins) {
             descriptionMap.put(getLoadedPluginDescription(plugin), plugin);
         }
 
-        List<P> orderedPlugins = new ArrayList<>(plugins.size());
-        for (D description : determineLoadOrder(descriptionMap.keySet())) {
-            orderedPlugins.add(descriptionMap.get(description));
-        }
-        return orderedPlugins;
+        return determineLoadPlan(descriptionMap.keySet()).map(descriptionMap::get);
     }
 
     /**
-     * Determines the load order for a given collection of descriptions.
+     * Determines the load plan for a given collection of descriptions.
      * @throws IllegalStateException Iff circular dependency
      */
-    public List<D> determineLoadOrder(Collection<? extends D> descriptions) throws IllegalStateException {
+    public LoadPlan<D> determineLoadPlan(Collection<? extends D> descriptions) throws IllegalStateException {
         Map<String, D> pluginIdToDescriptionMap = new HashMap<>();
         for (D description : descriptions) {
             pluginIdToDescriptionMap.put(description.getId(), description);
@@ -297,6 +699,47 @@ public abstract class AbstractPluginManager<P, D extends ServerUtilsPluginDescri
             dependencyMap.put(description, dependencies);
         }
 
-        return DependencyUtils.determineOrder(dependencyMap);
+        DependencyUtils.SortResult<D> sortResult = DependencyUtils.sort(dependencyMap);
+        if (sortResult.hasCycles()) {
+            throw new IllegalStateException(sortResult.getCycleMessage());
+        }
+        return new LoadPlan<>(sortResult.getOrder(), sortResult.getLevels());
+    }
+
+    /**
+     * The outcome of a stage of a (re)load, which either failed with results or yields a value for the next stage.
+     */
+    private static final class Stage<P, T> {
+
+        private final PluginResults<P> failure;
+        private final T value;
+
+        private Stage(PluginResults<P> failure, T value) {
+            this.failure = failure;
+            this.value = value;
+        }
+
+        private static <P, T> Stage<P, T> of(T value) {
+            return new Stage<>(null, value);
+        }
+
+        private static <P, T> Stage<P, T> failed(PluginResults<P> failure) {
+            return new Stage<>(failure, null);
+        }
+
+        private boolean isFailed() {
+            return failure != null;
+        }
+    }
+
+    private static final class LoadedDescription<P, D> {
+
+        private final P plugin;
+        private final D description;
+
+        private LoadedDescription(P plugin, D description) {
+            this.plugin = plugin;
+            this.description = description;
+        }
     }
 }
@@ -2,10 +2,13 @@ package net.frankheijden.serverutils.common.managers;
 
 import net.frankheijden.serverutils.common.entities.AbstractTask;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 public abstract class AbstractTaskManager<T> {
 
@@ -20,8 +23,8 @@ public abstract class AbstractTaskManager<T> {
      */
     protected AbstractTaskManager(Consumer<T> taskCloser) {
         this.taskCloser = taskCloser;
-        this.serverTasks = new ArrayList<>();
-        this.tasks = new HashMap<>();
+        this.serverTasks = Collections.synchronizedList(new ArrayList<>());
+        this.tasks = new ConcurrentHashMap<>();
     }
 
     protected abstract T runTaskImpl(Runnable runnable);
@@ -35,6 +38,15 @@ public abstract class AbstractTaskManager<T> {
      */
     public abstract T runTaskLater(Runnable runnable, long delay);
 
+    /**
+     * Run a task later after a certain delay (asynchronously).
+     *
+     * @param runnable The Runnable
+     * @param delay The delay in ticks (for BungeeCord, this is automatically converted to milliseconds).
+     * @return The scheduled task
+     */
+    public abstract T runTaskLaterAsynchronously(Runnable runnable, long delay);
+
     public T runTask(Runnable runnable) {
         return addTask(runTaskImpl(runnable));
     }
@@ -71,6 +83,40 @@ public abstract class AbstractTaskManager<T> {
         return task;
     }
 
+    /**
+     * Supplies a value on the main thread.
+     * Exceptions thrown by the supplier complete the returned future exceptionally.
+     *
+     * @param supplier The supplier to run synchronously.
+     * @return A future which completes with the supplied value.
+     */
+    public <R> CompletableFuture<R> supplySync(Supplier<R> supplier) {
+        CompletableFuture<R> future = new CompletableFuture<>();
+        runTask(() -> complete(future, supplier));
+        return future;
+    }
+
+    /**
+     * Supplies a value on an asynchronous thread.
+     * Exceptions thrown by the supplier complete the returned future exceptionally.
+     *
+     * @param supplier The supplier to run asynchronously.
+     * @return A future which completes with the supplied value.
+     */
+    public <R> CompletableFuture<R> supplyAsync(Supplier<R> supplier) {
+        CompletableFuture<R> future = new CompletableFuture<>();
+        runTaskAsynchronously(() -> complete(future, supplier));
+        return future;
+    }
+
+    private static <R> void complete(CompletableFuture<R> future, Supplier<R> supplier) {
+        try {
+            future.complete(supplier.get());
+        } catch (Throwable th) {
+            future.completeExceptionally(th);
+        }
+    }
+
     private T addTask(T task) {
         serverTasks.add(task);
         return task;
@@ -91,19 +137,34 @@ public abstract class AbstractTaskManager<T> {
         return true;
     }
 
+    /**
+     * Forgets a task which finished on its own, without cancelling it.
+     * Does nothing if the key has been associated with another task since.
+     *
+     * @param key The key of the task.
+     * @param abstractTask The AbstractTask which finished.
+     * @return Whether or not the task was removed.
+     */
+    public boolean removeTask(String key, AbstractTask abstractTask) {
+        RunningTask task = tasks.get(key);
+        return task != null && task.abstractTask == abstractTask && tasks.remove(key, task);
+    }
+
     /**
      * Cancels all tasks.
      */
     public void cancelAllTasks() {
-        for (RunningTask task : tasks.values()) {
-            task.cancel();
+        for (String key : tasks.keySet()) {
+            RunningTask task = tasks.remove(key);
+            if (task != null) task.cancel();
         }
-        tasks.clear();
 
-        for (T task : serverTasks) {
-            taskCloser.accept(task);
+        synchronized (serverTasks) {
+            for (T task : serverTasks) {
+                taskCloser.accept(task);
+            }
+            serverTasks.clear();
         }
-        serverTasks.clear();
     }
 
     private final class RunningTask {
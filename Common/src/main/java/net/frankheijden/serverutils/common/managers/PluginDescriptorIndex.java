@@ -0,0 +1,315 @@
+package net.frankheijden.serverutils.common.managers;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import net.frankheijden.serverutils.common.entities.FileFingerprint;
+import net.frankheijden.serverutils.common.entities.PluginDescriptorScan;
+import net.frankheijden.serverutils.common.entities.ServerUtilsPluginDescription;
+import net.frankheijden.serverutils.common.entities.exceptions.InvalidPluginDescriptionException;
+
+/**
+ * Index of plugin jars, mapping the fingerprint of a jar to the plugin id it describes.
+ * Descriptions are only parsed again when the size or modification time of a jar changes.
+ * The id mapping is persisted, such that a restart does not require parsing every jar again. Changes are persisted
+ * by a debounced task, lookups thus never write the index themselves.
+ */
+public class PluginDescriptorIndex<D extends ServerUtilsPluginDescription> {
+
+    private static final Gson gson = new Gson();
+    private static final Type ENTRIES_TYPE = new TypeToken<List<Entry>>(){}.getType();
+
+    private final Path path;
+    private final Function<File, Optional<D>> parser;
+    private final Consumer<Runnable> saveScheduler;
+    private final Map<String, Entry> entries;
+    private final AtomicBoolean saveScheduled;
+    private ForkJoinPool pool;
+    private volatile boolean dirty;
+
+    /**
+     * Constructs a new, empty PluginDescriptorIndex.
+     * @param path The path to persist the index to.
+     * @param parser The function which parses a description from a jar file.
+     * @param saveScheduler Schedules the (asynchronous) save of a changed index, after a delay in which further
+     *                      changes are batched.
+     */
+    public PluginDescriptorIndex(Path path, Function<File, Optional<D>> parser, Consumer<Runnable> saveScheduler) {
+        this.path = path;
+        this.parser = parser;
+        this.saveScheduler = saveScheduler;
+        this.entries = new ConcurrentHashMap<>();
+        this.saveScheduled = new AtomicBoolean(false);
+        this.dirty = false;
+    }
+
+    /**
+     * Loads and constructs a new {@link PluginDescriptorIndex} from the given {@link Path}.
+     * An unreadable index is discarded, and will be rebuilt on subsequent lookups.
+     */
+    public static <D extends ServerUtilsPluginDescription> PluginDescriptorIndex<D> load(
+            Path path,
+            Function<File, Optional<D>> parser,
+            Consumer<Runnable> saveScheduler
+    ) {
+        PluginDescriptorIndex<D> index = new PluginDescriptorIndex<>(path, parser, saveScheduler);
+        if (Files.exists(path)) {
+            try (Reader reader = Files.newBufferedReader(path)) {
+                List<Entry> rawEntries = gson.fromJson(reader, ENTRIES_TYPE);
+                if (rawEntries != null) {
+                    for (Entry entry : rawEntries) {
+                        if (entry == null || entry.fingerprint == null) continue;
+                        index.entries.put(entry.fingerprint.getPath(), entry);
+                    }
+                }
+            } catch (IOException | JsonParseException ex) {
+                index.markDirty();
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Retrieves the description of the given jar file, parsing it only if the jar changed since the last lookup.
+     * @throws InvalidPluginDescriptionException Iff the jar does not contain a valid description.
+     */
+    public Optional<D> getDescription(File file) throws InvalidPluginDescriptionException {
+        FileFingerprint fingerprint = FileFingerprint.of(file);
+        if (fingerprint == null) {
+            invalidate(file);
+            return Optional.empty();
+        }
+
+        Entry entry = entries.get(fingerprint.getPath());
+        if (entry != null && entry.description != null && entry.fingerprint.equals(fingerprint)) {
+            return Optional.of(cast(entry.description));
+        }
+
+        return parse(file, fingerprint);
+    }
+
+    /**
+     * Attempts to find the jar file of the given plugin id amongst the given jars.
+     * Only jars which changed since they were last indexed have their description parsed.
+     */
+    public Optional<File> getFile(String pluginId, File[] jars) {
+        FileFingerprint[] fingerprints = new FileFingerprint[jars.length];
+        Set<String> paths = new HashSet<>(jars.length);
+        for (int i = 0; i < jars.length; i++) {
+            fingerprints[i] = FileFingerprint.of(jars[i]);
+            if (fingerprints[i] != null) paths.add(fingerprints[i].getPath());
+        }
+
+        if (entries.keySet().retainAll(paths)) {
+            markDirty();
+        }
+
+        return findFile(pluginId, jars, fingerprints);
+    }
+
+    private Optional<File> findFile(String pluginId, File[] jars, FileFingerprint[] fingerprints) {
+        List<Integer> changed = new ArrayList<>();
+        for (int i = 0; i < jars.length; i++) {
+            FileFingerprint fingerprint = fingerprints[i];
+            if (fingerprint == null) continue;
+
+            Entry entry = entries.get(fingerprint.getPath());
+            if (entry == null || !entry.fingerprint.equals(fingerprint)) {
+                changed.add(i);
+            } else if (pluginId.equals(entry.pluginId)) {
+                return Optional.of(jars[i]);
+            }
+        }
+
+        File[] changedJars = new File[changed.size()];
+        for (int i = 0; i < changedJars.length; i++) {
+            changedJars[i] = jars[changed.get(i)];
+        }
+
+        return scan(changedJars).getDescription(pluginId).map(ServerUtilsPluginDescription::getFile);
+    }
+
+    /**
+     * Resolves the descriptions of the given jars in parallel, on a shared fork-join pool which is bounded by the
+     * number of available processors.
+     * Jars which did not change since they were last indexed are not parsed again.
+     * If multiple jars describe the same plugin id, the first jar wins.
+     */
+    public PluginDescriptorScan<D> scan(File[] jars) {
+        @SuppressWarnings("unchecked")
+        D[] descriptions = (D[]) new ServerUtilsPluginDescription[jars.length];
+        Throwable[] errors = new Throwable[jars.length];
+
+        if (jars.length <= 1 || Runtime.getRuntime().availableProcessors() <= 1) {
+            for (int i = 0; i < jars.length; i++) {
+                resolve(jars, i, descriptions, errors);
+            }
+        } else {
+            try {
+                getPool().submit(() -> IntStream.range(0, jars.length)
+                        .parallel()
+                        .forEach(i -> resolve(jars, i, descriptions, errors))
+                ).get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException ex) {
+                ex.printStackTrace();
+            }
+        }
+
+        Map<String, D> descriptionMap = new LinkedHashMap<>(jars.length);
+        Map<File, Throwable> errorMap = new LinkedHashMap<>();
+        for (int i = 0; i < jars.length; i++) {
+            if (errors[i] != null) {
+                errorMap.put(jars[i], errors[i]);
+            } else if (descriptions[i] != null) {
+                descriptionMap.putIfAbsent(descriptions[i].getId(), descriptions[i]);
+            }
+        }
+
+        return new PluginDescriptorScan<>(descriptionMap, errorMap);
+    }
+
+    private synchronized ForkJoinPool getPool() {
+        if (pool == null) {
+            pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors(), p -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+                thread.setName("ServerUtils-DescriptorScan-" + thread.getPoolIndex());
+                thread.setDaemon(true);
+                return thread;
+            }, null, false);
+        }
+        return pool;
+    }
+
+    /**
+     * Shuts down the pool which scans jars, if it was created. A subsequent scan creates a new pool.
+     */
+    public synchronized void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+    private void resolve(File[] jars, int i, D[] descriptions, Throwable[] errors) {
+        try {
+            descriptions[i] = getDescription(jars[i]).orElse(null);
+        } catch (Throwable th) {
+            errors[i] = th;
+        }
+    }
+
+    private Optional<D> parse(File file, FileFingerprint fingerprint) throws InvalidPluginDescriptionException {
+        Optional<D> descriptionOptional;
+        try {
+            descriptionOptional = parser.apply(file);
+        } catch (InvalidPluginDescriptionException ex) {
+            entries.put(fingerprint.getPath(), new Entry(fingerprint, null, null));
+            markDirty();
+            throw ex;
+        }
+
+        D description = descriptionOptional.orElse(null);
+        Entry entry = new Entry(fingerprint, description == null ? null : description.getId(), description);
+        Entry previous = entries.put(fingerprint.getPath(), entry);
+        if (previous == null || !entry.isPersistedEqual(previous)) {
+            markDirty();
+        }
+        return descriptionOptional;
+    }
+
+    /**
+     * Removes the given file from the index, forcing it to be parsed again on the next lookup.
+     */
+    public void invalidate(File file) {
+        if (entries.remove(file.getAbsolutePath()) != null) {
+            markDirty();
+        }
+    }
+
+    private void markDirty() {
+        dirty = true;
+        if (saveScheduled.compareAndSet(false, true)) {
+            saveScheduler.accept(() -> {
+                saveScheduled.set(false);
+                saveIfDirty();
+            });
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private D cast(ServerUtilsPluginDescription description) {
+        return (D) description;
+    }
+
+    /**
+     * Saves the index to the {@link Path} it was loaded from, if it changed since it was last saved.
+     */
+    public void saveIfDirty() {
+        if (!dirty) return;
+        try {
+            save();
+        } catch (IOException ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    /**
+     * Saves the index to the {@link Path} it was loaded from.
+     */
+    public synchronized void save() throws IOException {
+        dirty = false;
+        if (Files.notExists(path.getParent())) {
+            Files.createDirectories(path.getParent());
+        }
+
+        Files.write(
+                path,
+                gson.toJson(new ArrayList<>(entries.values()), ENTRIES_TYPE).getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING
+        );
+    }
+
+    private static final class Entry {
+
+        private final FileFingerprint fingerprint;
+        private final String pluginId;
+        private final transient ServerUtilsPluginDescription description;
+
+        private Entry(FileFingerprint fingerprint, String pluginId, ServerUtilsPluginDescription description) {
+            this.fingerprint = fingerprint;
+            this.pluginId = pluginId;
+            this.description = description;
+        }
+
+        private boolean isPersistedEqual(Entry other) {
+            return fingerprint.equals(other.fingerprint)
+                    && (pluginId == null ? other.pluginId == null : pluginId.equals(other.pluginId));
+        }
+    }
+}
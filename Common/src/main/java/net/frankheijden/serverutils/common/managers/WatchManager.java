@@ -9,15 +9,21 @@ import net.frankheijden.serverutils.common.entities.ServerUtilsAudience;
 import net.frankheijden.serverutils.common.entities.ServerUtilsPlugin;
 import net.frankheijden.serverutils.common.entities.results.PluginWatchResults;
 import net.frankheijden.serverutils.common.entities.results.WatchResult;
+import net.frankheijden.serverutils.common.tasks.PluginWatchService;
 import net.frankheijden.serverutils.common.tasks.PluginWatcherTask;
 
 public class WatchManager<P, T> {
 
     private final ServerUtilsPlugin<P, T, ?, ?, ?> plugin;
+    private final PluginWatchService watchService;
     private final Map<String, WatchTask> watchTasks;
 
+    /**
+     * Constructs a new WatchManager, which multiplexes all plugin watches over a single {@link PluginWatchService}.
+     */
     public WatchManager(ServerUtilsPlugin<P, T, ?, ?, ?> plugin) {
         this.plugin = plugin;
+        this.watchService = new PluginWatchService(plugin);
         this.watchTasks = new HashMap<>();
     }
 
@@ -36,10 +42,13 @@ public class WatchManager<P, T> {
         }
 
         UUID key = UUID.randomUUID();
-        plugin.getTaskManager().runTaskAsynchronously(
-                key.toString(),
-                new PluginWatcherTask<>(plugin, sender, plugins)
-        );
+        if (!watchService.subscribe(key.toString(), new PluginWatcherTask<>(plugin, sender, plugins))) {
+            PluginWatchResults watchResults = new PluginWatchResults();
+            for (String pluginId : pluginIds) {
+                watchResults.add(WatchResult.STOPPED, "plugin", pluginId);
+            }
+            return watchResults;
+        }
 
         WatchTask watchTask = new WatchTask(key, pluginIds);
         for (String pluginId : pluginIds) {
@@ -58,7 +67,9 @@ public class WatchManager<P, T> {
      */
     public PluginWatchResults unwatchPluginsAssociatedWith(String associatedPluginId) {
         WatchTask task = watchTasks.get(associatedPluginId);
-        if (task != null && plugin.getTaskManager().cancelTask(task.key.toString())) {
+        if (task != null) {
+            // The subscription may have been stopped by the watch service already
+            watchService.unsubscribe(task.key.toString());
             task.pluginIds.forEach(watchTasks::remove);
 
             PluginWatchResults watchResults = new PluginWatchResults();
@@ -0,0 +1,95 @@
+package net.frankheijden.serverutils.common.reflection;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * Accesses a field through MethodHandles which are resolved once, instead of looking the field up by name on
+ * every access. Static fields ignore the instance argument.
+ */
+public final class FieldAccessor {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final Field field;
+    private final MethodHandle getter;
+    private MethodHandle setter;
+
+    private FieldAccessor(Field field, MethodHandle getter) {
+        this.field = field;
+        this.getter = getter;
+    }
+
+    /**
+     * Resolves the field with given name, declared in the class or any of its superclasses.
+     * @throws IllegalArgumentException If the field could not be found or accessed.
+     */
+    public static FieldAccessor of(Class<?> clazz, String name) {
+        Field field = findField(clazz, name);
+        try {
+            field.setAccessible(true);
+            MethodHandle getter = MethodHandles.lookup().unreflectGetter(field);
+            if (Modifier.isStatic(field.getModifiers())) {
+                getter = MethodHandles.dropArguments(getter, 0, Object.class);
+            }
+            return new FieldAccessor(field, getter.asType(GETTER_TYPE));
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            throw new IllegalArgumentException("Unable to access field " + clazz.getName() + "#" + name, ex);
+        }
+    }
+
+    private static Field findField(Class<?> clazz, String name) {
+        for (Class<?> c = clazz; c != null; c = c.getSuperclass()) {
+            try {
+                return c.getDeclaredField(name);
+            } catch (NoSuchFieldException ignored) {
+                //
+            }
+        }
+        throw new IllegalArgumentException("Unknown field " + clazz.getName() + "#" + name);
+    }
+
+    public Field getField() {
+        return field;
+    }
+
+    /**
+     * Retrieves the value of the field.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object instance) {
+        try {
+            return (T) (Object) getter.invokeExact(instance);
+        } catch (Throwable th) {
+            throw ReflectiveAccessException.wrap(th);
+        }
+    }
+
+    /**
+     * Sets the value of the field. Final fields can't be set.
+     */
+    public void set(Object instance, Object value) {
+        try {
+            getSetter().invokeExact(instance, value);
+        } catch (Throwable th) {
+            throw ReflectiveAccessException.wrap(th);
+        }
+    }
+
+    private MethodHandle getSetter() throws IllegalAccessException {
+        MethodHandle handle = setter;
+        if (handle == null) {
+            handle = MethodHandles.lookup().unreflectSetter(field);
+            if (Modifier.isStatic(field.getModifiers())) {
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+            handle = handle.asType(SETTER_TYPE);
+            setter = handle;
+        }
+        return handle;
+    }
+}
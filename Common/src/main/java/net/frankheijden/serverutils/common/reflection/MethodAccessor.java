@@ -0,0 +1,78 @@
+package net.frankheijden.serverutils.common.reflection;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+
+/**
+ * Invokes a method through a MethodHandle which is resolved once, instead of looking the method up by name (and
+ * argument types) on every invocation. Static methods ignore the instance argument.
+ */
+public final class MethodAccessor {
+
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+    private final Method method;
+    private final MethodHandle invoker;
+
+    private MethodAccessor(Method method, MethodHandle invoker) {
+        this.method = method;
+        this.invoker = invoker;
+    }
+
+    /**
+     * Resolves the method with given name and parameter types, declared in the class or any of its superclasses.
+     * @throws IllegalArgumentException If the method could not be found or accessed.
+     */
+    public static MethodAccessor of(Class<?> clazz, String name, Class<?>... parameterTypes) {
+        Method method = findMethod(clazz, name, parameterTypes);
+        try {
+            method.setAccessible(true);
+            MethodHandle handle = MethodHandles.lookup().unreflect(method);
+            if (Modifier.isStatic(method.getModifiers())) {
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+
+            int parameterCount = parameterTypes.length;
+            MethodHandle invoker = handle
+                    .asType(MethodType.genericMethodType(parameterCount + 1))
+                    .asSpreader(Object[].class, parameterCount)
+                    .asType(INVOKER_TYPE);
+            return new MethodAccessor(method, invoker);
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            throw new IllegalArgumentException("Unable to access method " + clazz.getName() + "#" + name, ex);
+        }
+    }
+
+    private static Method findMethod(Class<?> clazz, String name, Class<?>... parameterTypes) {
+        for (Class<?> c = clazz; c != null; c = c.getSuperclass()) {
+            try {
+                return c.getDeclaredMethod(name, parameterTypes);
+            } catch (NoSuchMethodException ignored) {
+                //
+            }
+        }
+        throw new IllegalArgumentException(
+                "Unknown method " + clazz.getName() + "#" + name + Arrays.toString(parameterTypes)
+        );
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    /**
+     * Invokes the method, returning its result (or null for void methods).
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T invoke(Object instance, Object... args) {
+        try {
+            return (T) (Object) invoker.invokeExact(instance, args);
+        } catch (Throwable th) {
+            throw ReflectiveAccessException.wrap(th);
+        }
+    }
+}
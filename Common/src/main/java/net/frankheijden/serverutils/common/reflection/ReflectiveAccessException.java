@@ -0,0 +1,20 @@
+package net.frankheijden.serverutils.common.reflection;
+
+/**
+ * Thrown when a reflective accessor fails with a checked exception.
+ * Unchecked exceptions and errors thrown by the target are propagated as-is.
+ */
+public class ReflectiveAccessException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ReflectiveAccessException(Throwable cause) {
+        super(cause);
+    }
+
+    static RuntimeException wrap(Throwable th) {
+        if (th instanceof RuntimeException) return (RuntimeException) th;
+        if (th instanceof Error) throw (Error) th;
+        return new ReflectiveAccessException(th);
+    }
+}
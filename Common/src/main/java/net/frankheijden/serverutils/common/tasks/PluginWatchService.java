@@ -0,0 +1,201 @@
+package net.frankheijden.serverutils.common.tasks;
+
+import com.sun.nio.file.SensitivityWatchEventModifier;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import net.frankheijden.serverutils.common.entities.AbstractTask;
+import net.frankheijden.serverutils.common.entities.ServerUtilsPlugin;
+
+/**
+ * Watches the plugins folder with a single {@link WatchService} and asynchronous task,
+ * dispatching file events to all subscriptions. The task is started on the first subscription,
+ * and stopped once no subscriptions are left.
+ */
+public class PluginWatchService {
+
+    private static final String TASK_KEY = "plugin-watch-service";
+    private static final WatchEvent.Kind<?>[] EVENTS = new WatchEvent.Kind[]{
+        StandardWatchEventKinds.ENTRY_CREATE,
+        StandardWatchEventKinds.ENTRY_MODIFY,
+        StandardWatchEventKinds.ENTRY_DELETE
+    };
+
+    private final ServerUtilsPlugin<?, ?, ?, ?, ?> plugin;
+    private final Map<String, Subscriber> subscribers;
+    private WatchService watchService;
+
+    public PluginWatchService(ServerUtilsPlugin<?, ?, ?, ?, ?> plugin) {
+        this.plugin = plugin;
+        this.subscribers = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Subscribes to changes in the plugins folder, starting the watch task if it is not running yet.
+     * @param key The key of the subscription.
+     * @param subscriber The subscriber which handles the changed files.
+     * @return Whether the subscription was made, false if the plugins folder could not be watched.
+     */
+    public synchronized boolean subscribe(String key, Subscriber subscriber) {
+        if (watchService == null) {
+            try {
+                start();
+            } catch (IOException ex) {
+                ex.printStackTrace();
+                return false;
+            }
+        }
+
+        subscribers.put(key, subscriber);
+        return true;
+    }
+
+    /**
+     * Removes a subscription, stopping the watch task if no subscriptions are left.
+     * @return Whether the subscription existed.
+     */
+    public boolean unsubscribe(String key) {
+        boolean removed = subscribers.remove(key) != null;
+        stopIfIdle();
+        return removed;
+    }
+
+    public int getSubscriptionCount() {
+        return subscribers.size();
+    }
+
+    private void start() throws IOException {
+        Path basePath = plugin.getPluginManager().getPluginsFolder().toPath();
+        WatchService service = FileSystems.getDefault().newWatchService();
+        try {
+            basePath.register(service, EVENTS, SensitivityWatchEventModifier.HIGH);
+        } catch (IOException ex) {
+            service.close();
+            throw ex;
+        }
+
+        this.watchService = service;
+        plugin.getTaskManager().runTaskAsynchronously(TASK_KEY, new WatchTask(service, basePath));
+    }
+
+    private synchronized void stopIfIdle() {
+        if (subscribers.isEmpty() && watchService != null) {
+            watchService = null;
+            plugin.getTaskManager().cancelTask(TASK_KEY);
+        }
+    }
+
+    /**
+     * Releases the given watch service if no subscriptions are left, or if it was already replaced.
+     * @return Whether the task of the watch service should stop.
+     */
+    private synchronized boolean release(WatchService service, boolean force) {
+        if (watchService != service) return true;
+        if (!force && !subscribers.isEmpty()) return false;
+        watchService = null;
+        return true;
+    }
+
+    /**
+     * Releases the watch service of a task which stopped, and forgets the task if it is still registered.
+     * Runs under the same lock as {@link #start()}, such that the task is registered before it can be forgotten.
+     */
+    private synchronized void finish(WatchTask task) {
+        release(task.service, true);
+        plugin.getTaskManager().removeTask(TASK_KEY, task);
+    }
+
+    private void dispatch(Path path) {
+        for (Map.Entry<String, Subscriber> entry : subscribers.entrySet()) {
+            Subscriber subscriber = entry.getValue();
+            boolean keepWatching;
+            try {
+                keepWatching = subscriber.handle(path);
+            } catch (RuntimeException ex) {
+                ex.printStackTrace();
+                continue;
+            }
+
+            if (!keepWatching && subscribers.remove(entry.getKey(), subscriber)) {
+                subscriber.stopped();
+            }
+        }
+    }
+
+    private void stopAll() {
+        for (String key : subscribers.keySet()) {
+            Subscriber subscriber = subscribers.remove(key);
+            if (subscriber != null) subscriber.stopped();
+        }
+    }
+
+    public interface Subscriber {
+
+        /**
+         * Handles a created, modified or deleted file in the plugins folder.
+         * @return Whether the subscriber keeps watching.
+         */
+        boolean handle(Path path);
+
+        /**
+         * Called once the subscription is stopped by the service, rather than by unsubscribing.
+         */
+        void stopped();
+    }
+
+    private final class WatchTask extends AbstractTask {
+
+        private final WatchService service;
+        private final Path basePath;
+
+        private WatchTask(WatchService service, Path basePath) {
+            this.service = service;
+            this.basePath = basePath;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    WatchKey key = service.take();
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == StandardWatchEventKinds.OVERFLOW) continue;
+
+                        Path path = basePath.resolve((Path) event.context());
+                        if (!Files.isDirectory(path)) {
+                            dispatch(path);
+                        }
+                    }
+
+                    boolean valid = key.reset();
+                    if (!valid) stopAll();
+                    if (release(service, !valid)) break;
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } catch (ClosedWatchServiceException ignored) {
+                //
+            } finally {
+                finish(this);
+                cancel();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            try {
+                service.close();
+            } catch (IOException ex) {
+                ex.printStackTrace();
+            }
+        }
+    }
+}
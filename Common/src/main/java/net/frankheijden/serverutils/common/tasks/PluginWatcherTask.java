@@ -1,24 +1,17 @@
 package net.frankheijden.serverutils.common.tasks;
 
-import com.sun.nio.file.SensitivityWatchEventModifier;
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.ClosedWatchServiceException;
-import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardWatchEventKinds;
-import java.nio.file.WatchEvent;
-import java.nio.file.WatchKey;
-import java.nio.file.WatchService;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.ConcurrentHashMap;
 import net.frankheijden.serverutils.common.config.MessageKey;
-import net.frankheijden.serverutils.common.entities.AbstractTask;
 import net.frankheijden.serverutils.common.entities.ServerUtilsAudience;
 import net.frankheijden.serverutils.common.entities.ServerUtilsPlugin;
 import net.frankheijden.serverutils.common.entities.ServerUtilsPluginDescription;
@@ -26,26 +19,31 @@ import net.frankheijden.serverutils.common.entities.exceptions.InvalidPluginDesc
 import net.frankheijden.serverutils.common.entities.results.PluginResult;
 import net.frankheijden.serverutils.common.entities.results.PluginResults;
 import net.frankheijden.serverutils.common.entities.results.WatchResult;
+import net.frankheijden.serverutils.common.jfr.LifecycleEvents;
 import net.frankheijden.serverutils.common.managers.AbstractPluginManager;
 import net.frankheijden.serverutils.common.utils.FileUtils;
+import net.frankheijden.serverutils.common.utils.QuiescenceDetector;
+import net.frankheijden.serverutils.common.utils.ZipManifest;
 import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
 import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
 
-public class PluginWatcherTask<P, T> extends AbstractTask {
+/**
+ * Reloads a group of plugins once one of their jars changes.
+ * File events are dispatched by the shared {@link PluginWatchService}, and only mark the jar as pending. Pending jars
+ * are checked asynchronously once they are expected to be quiescent, after which the group is reloaded once on the
+ * main thread. Jars which were rewritten without changes to the checksums of their entries are not reloaded.
+ */
+public class PluginWatcherTask<P, T> implements PluginWatchService.Subscriber {
 
-    private static final WatchEvent.Kind<?>[] EVENTS = new WatchEvent.Kind[]{
-        StandardWatchEventKinds.ENTRY_CREATE,
-        StandardWatchEventKinds.ENTRY_MODIFY,
-        StandardWatchEventKinds.ENTRY_DELETE
-    };
+    private static final int MAX_REPORTED_ENTRIES = 10;
 
     private final ServerUtilsPlugin<P, T, ?, ?, ?> plugin;
     private final ServerUtilsAudience<?> sender;
     private final Map<String, WatchEntry> fileNameToWatchEntryMap;
     private final Map<String, WatchEntry> pluginIdToWatchEntryMap;
+    private final Map<String, WatchEntry> pendingEntries;
+    private final long quiescenceMillis;
 
-    private final AtomicBoolean run = new AtomicBoolean(true);
-    private WatchService watchService;
     private T task = null;
 
     /**
@@ -54,14 +52,17 @@ public class PluginWatcherTask<P, T> extends AbstractTask {
     public PluginWatcherTask(ServerUtilsPlugin<P, T, ?, ?, ?> plugin, ServerUtilsAudience<?> sender, List<P> plugins) {
         this.plugin = plugin;
         this.sender = sender;
-        this.fileNameToWatchEntryMap = new HashMap<>();
-        this.pluginIdToWatchEntryMap = new HashMap<>();
+        this.fileNameToWatchEntryMap = new ConcurrentHashMap<>();
+        this.pluginIdToWatchEntryMap = new ConcurrentHashMap<>();
+        this.pendingEntries = new ConcurrentHashMap<>();
+        this.quiescenceMillis = Math.max(0, plugin.getConfigResource().getConfig()
+                .getInt("settings.watch-quiescence-millis"));
 
         AbstractPluginManager<P, ?> pluginManager = plugin.getPluginManager();
         for (P watchPlugin : plugins) {
             File file = pluginManager.getPluginFile(watchPlugin);
 
-            WatchEntry entry = new WatchEntry(pluginManager.getPluginId(watchPlugin));
+            WatchEntry entry = new WatchEntry(pluginManager.getPluginId(watchPlugin), quiescenceMillis);
             entry.update(file);
 
             this.fileNameToWatchEntryMap.put(file.getName(), entry);
@@ -69,43 +70,21 @@ public class PluginWatcherTask<P, T> extends AbstractTask {
     }
 
     @Override
-    public void run() {
-        try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
-            this.watchService = watchService;
-
-            AbstractPluginManager<P, ?> pluginManager = plugin.getPluginManager();
-            Path basePath = pluginManager.getPluginsFolder().toPath();
-            basePath.register(watchService, EVENTS, SensitivityWatchEventModifier.HIGH);
-
-            while (run.get()) {
-                WatchKey key = watchService.take();
-                for (WatchEvent<?> event : key.pollEvents()) {
-                    Path path = basePath.resolve((Path) event.context());
-
-                    if (!Files.isDirectory(path)) {
-                        handleWatchEvent(path);
-                    }
-                }
+    public boolean handle(Path path) {
+        handleWatchEvent(path);
+        return !fileNameToWatchEntryMap.isEmpty() || !pluginIdToWatchEntryMap.isEmpty();
+    }
 
-                if ((fileNameToWatchEntryMap.isEmpty() && pluginIdToWatchEntryMap.isEmpty()) || !key.reset()) {
-                    send(WatchResult.STOPPED);
-                    break;
-                }
-            }
-        } catch (IOException ex) {
-            ex.printStackTrace();
-        } catch (InterruptedException ex) {
-            Thread.currentThread().interrupt();
-        } catch (ClosedWatchServiceException ignored) {
-            //
-        }
+    @Override
+    public void stopped() {
+        send(WatchResult.STOPPED);
     }
 
     private void handleWatchEvent(Path path) {
         String fileName = path.getFileName().toString();
         WatchEntry entry = fileNameToWatchEntryMap.get(fileName);
 
-        if (entry == null && Files.exists(path)) {
+        if (entry == null && !pluginIdToWatchEntryMap.isEmpty() && Files.exists(path)) {
             Optional<? extends ServerUtilsPluginDescription> descriptionOptional;
             try {
                 descriptionOptional = plugin.getPluginManager().getPluginDescription(path.toFile());
@@ -129,60 +108,136 @@ public class PluginWatcherTask<P, T> extends AbstractTask {
         }
 
         if (entry != null) {
-            checkWatchEntry(entry, fileName);
+            markPending(entry, fileName);
         }
     }
 
-    private void checkWatchEntry(WatchEntry entry, String fileName) {
-        if (task != null) {
-            plugin.getTaskManager().cancelTask(task);
-        }
+    /**
+     * Marks the entry as pending, and schedules a check if none is scheduled yet.
+     * Called for every event, hence does not access the file.
+     */
+    private synchronized void markPending(WatchEntry entry, String fileName) {
+        entry.detector.touch();
+        pendingEntries.put(fileName, entry);
+        if (task == null) scheduleCheck(quiescenceMillis);
+    }
+
+    private synchronized void scheduleCheck(long delayMillis) {
+        long delayTicks = Math.max(1L, (delayMillis + 49L) / 50L);
+        task = plugin.getTaskManager().runTaskLaterAsynchronously(this::checkPendingEntries, delayTicks);
+    }
 
+    private void checkPendingEntries() {
         AbstractPluginManager<P, ?> pluginManager = plugin.getPluginManager();
-        Optional<File> fileOptional = pluginManager.getPluginFile(entry.pluginId);
-        if (!fileOptional.isPresent()) {
-            send(WatchResult.FILE_DELETED, TagResolver.resolver(Placeholder.parsed("plugin", entry.pluginId)));
+        long delayMillis = 0;
+        Map<String, CheckedEntry> quiescentEntries = new HashMap<>();
+        for (Map.Entry<String, WatchEntry> pending : pendingEntries.entrySet()) {
+            String fileName = pending.getKey();
+            WatchEntry entry = pending.getValue();
+
+            Optional<File> fileOptional = pluginManager.getPluginFile(entry.pluginId);
+            if (!fileOptional.isPresent()) {
+                send(WatchResult.FILE_DELETED, TagResolver.resolver(Placeholder.parsed("plugin", entry.pluginId)));
+
+                pendingEntries.remove(fileName, entry);
+                fileNameToWatchEntryMap.remove(fileName);
+                pluginIdToWatchEntryMap.put(entry.pluginId, entry);
+                continue;
+            }
 
-            fileNameToWatchEntryMap.remove(fileName);
-            pluginIdToWatchEntryMap.put(entry.pluginId, entry);
-            return;
+            File file = fileOptional.get();
+            long touchStamp = entry.detector.getTouchStamp();
+            long remaining = entry.detector.check(file);
+            if (remaining > 0) {
+                delayMillis = Math.max(delayMillis, remaining);
+            } else {
+                quiescentEntries.put(fileName, new CheckedEntry(entry, file, touchStamp));
+            }
         }
 
-        String previousHash = entry.hash;
-        long previousTimestamp = entry.timestamp;
-        entry.update(fileOptional.get());
+        synchronized (this) {
+            task = null;
+            for (CheckedEntry checkedEntry : quiescentEntries.values()) {
+                // Written to after it was checked, check again after the window
+                if (checkedEntry.isTouched()) delayMillis = Math.max(delayMillis, Math.max(1L, quiescenceMillis));
+            }
 
-        task = plugin.getTaskManager().runTaskLater(() -> {
-            if (entry.hash.equals(previousHash) || previousTimestamp < entry.timestamp - 1000L) {
-                send(WatchResult.CHANGE);
+            if (delayMillis > 0) {
+                // Reload all changed plugins at once, once all of them are quiescent
+                scheduleCheck(delayMillis);
+                return;
+            }
 
-                List<P> plugins = new ArrayList<>(fileNameToWatchEntryMap.size());
-                Map<String, WatchEntry> retainedWatchEntries = new HashMap<>();
-                for (WatchEntry oldEntry : fileNameToWatchEntryMap.values()) {
-                    Optional<P> pluginOptional = pluginManager.getPlugin(oldEntry.pluginId);
-                    if (!pluginOptional.isPresent()) continue;
+            for (Map.Entry<String, CheckedEntry> entry : quiescentEntries.entrySet()) {
+                pendingEntries.remove(entry.getKey(), entry.getValue().entry);
+            }
+        }
 
-                    plugins.add(pluginOptional.get());
-                    retainedWatchEntries.put(oldEntry.pluginId, oldEntry);
-                }
+        boolean changed = false;
+        for (CheckedEntry checkedEntry : quiescentEntries.values()) {
+            WatchEntry watchEntry = checkedEntry.entry;
 
-                fileNameToWatchEntryMap.clear();
+            String previousHash = watchEntry.hash;
+            ZipManifest previousManifest = watchEntry.manifest;
+            watchEntry.update(checkedEntry.file);
+            if (Objects.equals(previousHash, watchEntry.hash)) continue;
 
-                PluginResults<P> reloadResults = pluginManager.reloadPlugins(plugins);
-                reloadResults.sendTo(sender, MessageKey.RELOADPLUGIN_SUCCESS);
+            if (previousManifest == null || watchEntry.manifest == null) {
+                changed = true;
+                continue;
+            }
 
-                for (PluginResult<P> reloadResult : reloadResults) {
-                    if (!reloadResult.isSuccess()) continue;
+            TagResolver pluginPlaceholder = Placeholder.parsed("plugin", watchEntry.pluginId);
+            ZipManifest.Diff diff = previousManifest.diff(watchEntry.manifest);
+            if (diff.isEmpty()) {
+                send(WatchResult.UNCHANGED, pluginPlaceholder);
+                continue;
+            }
 
-                    P reloadedPlugin = reloadResult.getPlugin();
-                    String pluginId = pluginManager.getPluginId(reloadedPlugin);
+            List<String> entries = diff.format(MAX_REPORTED_ENTRIES);
+            if (diff.size() > entries.size()) entries.add("...");
+            send(WatchResult.CHANGED_ENTRIES, TagResolver.resolver(
+                    pluginPlaceholder,
+                    Placeholder.unparsed("count", String.valueOf(diff.size())),
+                    Placeholder.unparsed("entries", String.join(", ", entries))
+            ));
+            changed = true;
+        }
 
-                    WatchEntry retainedEntry = retainedWatchEntries.get(pluginId);
-                    String pluginFileName = pluginManager.getPluginFile(reloadedPlugin).getName();
-                    fileNameToWatchEntryMap.put(pluginFileName, retainedEntry);
-                }
-            }
-        }, 10L);
+        if (changed) plugin.getTaskManager().runTask(this::reloadPlugins);
+    }
+
+    private void reloadPlugins() {
+        AbstractPluginManager<P, ?> pluginManager = plugin.getPluginManager();
+        send(WatchResult.CHANGE);
+
+        List<P> plugins = new ArrayList<>(fileNameToWatchEntryMap.size());
+        Map<String, WatchEntry> retainedWatchEntries = new HashMap<>();
+        for (WatchEntry oldEntry : fileNameToWatchEntryMap.values()) {
+            Optional<P> pluginOptional = pluginManager.getPlugin(oldEntry.pluginId);
+            if (!pluginOptional.isPresent()) continue;
+
+            plugins.add(pluginOptional.get());
+            retainedWatchEntries.put(oldEntry.pluginId, oldEntry);
+        }
+
+        fileNameToWatchEntryMap.clear();
+
+        LifecycleEvents.Event event = LifecycleEvents.get().begin(LifecycleEvents.Type.WATCHER_RELOAD);
+        PluginResults<P> reloadResults = pluginManager.reloadPlugins(plugins);
+        event.end(reloadResults);
+        reloadResults.sendTo(sender, MessageKey.RELOADPLUGIN_SUCCESS);
+
+        for (PluginResult<P> reloadResult : reloadResults) {
+            if (!reloadResult.isSuccess()) continue;
+
+            P reloadedPlugin = reloadResult.getPlugin();
+            String pluginId = pluginManager.getPluginId(reloadedPlugin);
+
+            WatchEntry retainedEntry = retainedWatchEntries.get(pluginId);
+            String pluginFileName = pluginManager.getPluginFile(reloadedPlugin).getName();
+            fileNameToWatchEntryMap.put(pluginFileName, retainedEntry);
+        }
     }
 
     private void send(WatchResult result, TagResolver... templates) {
@@ -192,29 +247,42 @@ public class PluginWatcherTask<P, T> extends AbstractTask {
         }
     }
 
-    @Override
-    public void cancel() {
-        run.set(false);
-        try {
-            watchService.close();
-        } catch (IOException ex) {
-            ex.printStackTrace();
+    private static final class CheckedEntry {
+
+        private final WatchEntry entry;
+        private final File file;
+        private final long touchStamp;
+
+        private CheckedEntry(WatchEntry entry, File file, long touchStamp) {
+            this.entry = entry;
+            this.file = file;
+            this.touchStamp = touchStamp;
+        }
+
+        private boolean isTouched() {
+            return entry.detector.getTouchStamp() != touchStamp;
         }
     }
 
     private static final class WatchEntry {
 
         private final String pluginId;
+        private final QuiescenceDetector detector;
         private String hash = null;
-        private long timestamp = 0L;
+        private ZipManifest manifest = null;
 
-        public WatchEntry(String pluginId) {
+        public WatchEntry(String pluginId, long quiescenceMillis) {
             this.pluginId = pluginId;
+            this.detector = new QuiescenceDetector(quiescenceMillis);
         }
 
         public void update(File file) {
             this.hash = FileUtils.getHash(file.toPath());
-            this.timestamp = System.currentTimeMillis();
+            try {
+                this.manifest = ZipManifest.read(file.toPath());
+            } catch (IOException ex) {
+                this.manifest = null;
+            }
         }
     }
 }
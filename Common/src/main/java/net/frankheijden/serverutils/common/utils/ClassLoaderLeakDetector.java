@@ -0,0 +1,119 @@
+package net.frankheijden.serverutils.common.utils;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks classloaders of unloaded plugins through weak references, without forcing a garbage collection.
+ * A classloader which is still reachable after a number of natural garbage collection cycles is reported as a leak.
+ */
+public class ClassLoaderLeakDetector {
+
+    private final ReferenceQueue<ClassLoader> queue;
+    private final Set<TrackedClassLoader> tracked;
+
+    public ClassLoaderLeakDetector() {
+        this.queue = new ReferenceQueue<>();
+        this.tracked = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Starts tracking the classloader of an unloaded plugin.
+     */
+    public void track(String pluginId, ClassLoader classLoader) {
+        expunge();
+        tracked.add(new TrackedClassLoader(pluginId, classLoader, queue));
+    }
+
+    /**
+     * Retrieves the tracked classloaders which survived at least the given amount of garbage collection cycles,
+     * longest unloaded first.
+     */
+    public List<Leak> getLeaks(long minGcCycles) {
+        expunge();
+
+        long gcCycles = getGcCycles();
+        List<Leak> leaks = new ArrayList<>();
+        for (TrackedClassLoader reference : tracked) {
+            long survived = gcCycles - reference.gcCyclesAtUnload;
+            if (survived >= minGcCycles && reference.get() != null) {
+                leaks.add(new Leak(reference.pluginId, reference.unloadMillis, survived));
+            }
+        }
+        leaks.sort(Comparator.comparingLong(Leak::getUnloadMillis));
+        return leaks;
+    }
+
+    /**
+     * Retrieves the amount of classloaders which are tracked and not yet collected.
+     */
+    public int getTrackedCount() {
+        expunge();
+        return tracked.size();
+    }
+
+    private void expunge() {
+        Reference<? extends ClassLoader> reference;
+        while ((reference = queue.poll()) != null) {
+            tracked.remove(reference);
+        }
+    }
+
+    /**
+     * Sums the collection counts of all garbage collectors.
+     */
+    public static long getGcCycles() {
+        long count = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, bean.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static final class TrackedClassLoader extends WeakReference<ClassLoader> {
+
+        private final String pluginId;
+        private final long unloadMillis;
+        private final long gcCyclesAtUnload;
+
+        private TrackedClassLoader(String pluginId, ClassLoader classLoader, ReferenceQueue<ClassLoader> queue) {
+            super(classLoader, queue);
+            this.pluginId = pluginId;
+            this.unloadMillis = System.currentTimeMillis();
+            this.gcCyclesAtUnload = getGcCycles();
+        }
+    }
+
+    public static final class Leak {
+
+        private final String pluginId;
+        private final long unloadMillis;
+        private final long gcCycles;
+
+        private Leak(String pluginId, long unloadMillis, long gcCycles) {
+            this.pluginId = pluginId;
+            this.unloadMillis = unloadMillis;
+            this.gcCycles = gcCycles;
+        }
+
+        public String getPluginId() {
+            return pluginId;
+        }
+
+        public long getUnloadMillis() {
+            return unloadMillis;
+        }
+
+        public long getGcCycles() {
+            return gcCycles;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package net.frankheijden.serverutils.common.utils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Resolves all classes of a jar through a classloader, without initializing them.
+ * Classes are otherwise loaded lazily on first use, which usually happens on the main thread.
+ */
+public class ClassPreloader {
+
+    private static final String CLASS_SUFFIX = ".class";
+
+    private ClassPreloader() {}
+
+    /**
+     * Resolves all class entries of the given jar through the given classloader.
+     * Classes which fail to resolve (e.g. due to missing optional dependencies) are counted, but otherwise ignored.
+     */
+    public static Result preload(Path jar, ClassLoader loader) throws IOException {
+        long start = System.nanoTime();
+        int classes = 0;
+        int failures = 0;
+        for (ZipCentralDirectory.Entry entry : ZipCentralDirectory.read(jar).getEntries()) {
+            String className = toClassName(entry.getName());
+            if (className == null) continue;
+
+            try {
+                Class.forName(className, false, loader);
+                classes++;
+            } catch (ClassNotFoundException | LinkageError ex) {
+                failures++;
+            }
+        }
+        return new Result(classes, failures, System.nanoTime() - start);
+    }
+
+    /**
+     * Converts a jar entry name to a binary class name, or null if the entry is not a loadable class.
+     */
+    public static String toClassName(String entryName) {
+        if (!entryName.endsWith(CLASS_SUFFIX) || entryName.startsWith("META-INF/")) return null;
+
+        String className = entryName.substring(0, entryName.length() - CLASS_SUFFIX.length());
+        if (className.endsWith("module-info") || className.endsWith("package-info")) return null;
+        return className.replace('/', '.');
+    }
+
+    public static final class Result {
+
+        private final int classes;
+        private final int failures;
+        private final long durationNanos;
+
+        private Result(int classes, int failures, long durationNanos) {
+            this.classes = classes;
+            this.failures = failures;
+            this.durationNanos = durationNanos;
+        }
+
+        public int getClasses() {
+            return classes;
+        }
+
+        public int getFailures() {
+            return failures;
+        }
+
+        public long getDurationNanos() {
+            return durationNanos;
+        }
+
+        public long getDurationMillis() {
+            return durationNanos / 1_000_000L;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package net.frankheijden.serverutils.common.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Live graph of plugin dependencies, indexing plugin ids to ints and storing edges as bitsets.
+ * Plugins which are depended upon but not present (e.g. not loaded) are kept as absent nodes,
+ * such that their dependents are known once they are added.
+ */
+public class DependencyGraph {
+
+    private final Map<String, Integer> indices;
+    private final List<String> ids;
+    private final List<BitSet> dependencies;
+    private final List<BitSet> dependents;
+    private final BitSet present;
+
+    /**
+     * Constructs a new, empty dependency graph.
+     */
+    public DependencyGraph() {
+        this.indices = new HashMap<>();
+        this.ids = new ArrayList<>();
+        this.dependencies = new ArrayList<>();
+        this.dependents = new ArrayList<>();
+        this.present = new BitSet();
+    }
+
+    private int indexOf(String id) {
+        Integer index = indices.get(id);
+        if (index != null) return index;
+
+        int newIndex = ids.size();
+        indices.put(id, newIndex);
+        ids.add(id);
+        dependencies.add(new BitSet());
+        dependents.add(new BitSet());
+        return newIndex;
+    }
+
+    /**
+     * Adds (or replaces) a plugin with given dependencies to the graph.
+     */
+    public synchronized void add(String id, Collection<String> dependencyIds) {
+        int index = indexOf(id);
+        clearDependencies(index);
+
+        BitSet nodeDependencies = dependencies.get(index);
+        for (String dependencyId : dependencyIds) {
+            int dependencyIndex = indexOf(dependencyId);
+            nodeDependencies.set(dependencyIndex);
+            dependents.get(dependencyIndex).set(index);
+        }
+        present.set(index);
+    }
+
+    /**
+     * Removes a plugin from the graph. Edges of plugins depending on the removed plugin are retained.
+     */
+    public synchronized void remove(String id) {
+        Integer index = indices.get(id);
+        if (index == null) return;
+
+        clearDependencies(index);
+        present.clear(index);
+    }
+
+    private void clearDependencies(int index) {
+        BitSet nodeDependencies = dependencies.get(index);
+        for (int i = nodeDependencies.nextSetBit(0); i >= 0; i = nodeDependencies.nextSetBit(i + 1)) {
+            dependents.get(i).clear(index);
+        }
+        nodeDependencies.clear();
+    }
+
+    /**
+     * Clears the graph.
+     */
+    public synchronized void clear() {
+        indices.clear();
+        ids.clear();
+        dependencies.clear();
+        dependents.clear();
+        present.clear();
+    }
+
+    public synchronized boolean contains(String id) {
+        Integer index = indices.get(id);
+        return index != null && present.get(index);
+    }
+
+    public synchronized int size() {
+        return present.cardinality();
+    }
+
+    /**
+     * Retrieves the ids of the present plugins which directly depend on the given plugin.
+     */
+    public synchronized Set<String> getDependents(String id) {
+        Integer index = indices.get(id);
+        if (index == null) return Collections.emptySet();
+
+        BitSet result = (BitSet) dependents.get(index).clone();
+        result.and(present);
+        return toIds(result);
+    }
+
+    /**
+     * Retrieves the ids of the present plugins which directly or indirectly depend on the given plugin.
+     */
+    public synchronized Set<String> getTransitiveDependents(String id) {
+        Integer index = indices.get(id);
+        if (index == null) return Collections.emptySet();
+        return toIds(closure(index, dependents));
+    }
+
+    /**
+     * Retrieves the ids of the present plugins which the given plugin directly or indirectly depends on.
+     */
+    public synchronized Set<String> getTransitiveDependencies(String id) {
+        Integer index = indices.get(id);
+        if (index == null) return Collections.emptySet();
+        return toIds(closure(index, dependencies));
+    }
+
+    private BitSet closure(int index, List<BitSet> edges) {
+        BitSet visited = new BitSet(ids.size());
+        Deque<Integer> queue = new ArrayDeque<>();
+        queue.add(index);
+        while (!queue.isEmpty()) {
+            BitSet next = edges.get(queue.poll());
+            for (int i = next.nextSetBit(0); i >= 0; i = next.nextSetBit(i + 1)) {
+                if (!visited.get(i)) {
+                    visited.set(i);
+                    queue.add(i);
+                }
+            }
+        }
+
+        visited.clear(index);
+        visited.and(present);
+        return visited;
+    }
+
+    private Set<String> toIds(BitSet bitSet) {
+        Set<String> result = new LinkedHashSet<>(bitSet.cardinality());
+        for (int i = bitSet.nextSetBit(0); i >= 0; i = bitSet.nextSetBit(i + 1)) {
+            result.add(ids.get(i));
+        }
+        return result;
+    }
+}
@@ -1,13 +1,12 @@
 package net.frankheijden.serverutils.common.utils;
 
 import java.util.ArrayList;
-import java.util.Deque;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import net.frankheijden.serverutils.common.util.HashGraph;
 
 public class DependencyUtils {
 
@@ -15,101 +14,380 @@ public class DependencyUtils {
 
     /**
      * Determines the topological order of a dependency map.
-     * Adapted from https://github.com/VelocityPowered/Velocity.
+     * Nodes without a mutual dependency are ordered by their first appearance in the map.
      * @throws IllegalStateException Iff circular dependency.
      */
-    @SuppressWarnings("UnstableApiUsage")
     public static <T> List<T> determineOrder(Map<T, Set<T>> dependencyMap) throws IllegalStateException {
-        HashGraph<T> dependencyGraph = new HashGraph<>();
+        SortResult<T> result = sort(dependencyMap);
+        if (result.hasCycles()) {
+            throw new IllegalStateException(result.getCycleMessage());
+        }
+        return result.getOrder();
+    }
+
+    /**
+     * Sorts a dependency map topologically, without failing on circular dependencies.
+     * Nodes which are part of, or depend on, a circular dependency are left out of the order.
+     * Each strongly connected component forming a cycle is reported in {@link SortResult#getCycles()}.
+     */
+    public static <T> SortResult<T> sort(Map<T, Set<T>> dependencyMap) {
+        Map<T, Integer> indices = new HashMap<>(dependencyMap.size());
+        List<T> nodes = new ArrayList<>(dependencyMap.size());
         for (T node : dependencyMap.keySet()) {
-            dependencyGraph.addNode(node);
+            indexOf(node, indices, nodes);
+        }
+
+        int edgeCount = 0;
+        for (Set<T> dependencies : dependencyMap.values()) {
+            for (T dependency : dependencies) {
+                indexOf(dependency, indices, nodes);
+                edgeCount++;
+            }
         }
 
+        int nodeCount = nodes.size();
+        int[] dependencyCounts = new int[nodeCount];
+        int[] dependentCounts = new int[nodeCount];
+        int[] edgeFrom = new int[edgeCount];
+        int[] edgeTo = new int[edgeCount];
+        int edge = 0;
         for (Map.Entry<T, Set<T>> entry : dependencyMap.entrySet()) {
+            int from = indices.get(entry.getKey());
             for (T dependency : entry.getValue()) {
-                dependencyGraph.putEdge(entry.getKey(), dependency);
+                int to = indices.get(dependency);
+                edgeFrom[edge] = from;
+                edgeTo[edge] = to;
+                dependencyCounts[from]++;
+                dependentCounts[to]++;
+                edge++;
             }
         }
 
-        List<T> orderedList = new ArrayList<>(dependencyMap.size());
-        Map<T, Mark> marks = new HashMap<>(dependencyMap.size());
-
-        for (T node : dependencyGraph.nodes()) {
-            visitNode(dependencyGraph, node, marks, orderedList, new LinkedList<>());
+        Graph graph = new Graph(nodeCount, edgeFrom, edgeTo, dependencyCounts, dependentCounts);
+        int[] levels = new int[nodeCount];
+        int[] order = graph.kahn(levels);
+
+        List<T> orderedNodes = new ArrayList<>(order.length);
+        List<List<T>> levelNodes = new ArrayList<>();
+        for (int index : order) {
+            T node = nodes.get(index);
+            orderedNodes.add(node);
+            while (levelNodes.size() <= levels[index]) {
+                levelNodes.add(new ArrayList<>());
+            }
+            levelNodes.get(levels[index]).add(node);
         }
 
-        return orderedList;
-    }
-
-    @SuppressWarnings("UnstableApiUsage")
-    private static <T> void visitNode(
-            HashGraph<T> dependencyGraph,
-            T node,
-            Map<T, Mark> marks,
-            List<T> orderedList,
-            Deque<T> currentIteration
-    ) throws IllegalStateException {
-        Mark mark = marks.getOrDefault(node, Mark.NOT_VISITED);
-        if (mark == Mark.PERMANENT) {
-            return;
-        } else if (mark == Mark.TEMPORARY) {
-            currentIteration.addLast(node);
-
-            StringBuilder sb = new StringBuilder();
-            for (T currentNode : currentIteration) {
-                sb.append(" -> ").append(currentNode);
+        List<List<T>> cycles = new ArrayList<>();
+        List<List<T>> cyclePaths = new ArrayList<>();
+        if (order.length != nodeCount) {
+            boolean[] sorted = new boolean[nodeCount];
+            for (int index : order) {
+                sorted[index] = true;
             }
 
-            throw new IllegalStateException("Circular dependency detected: " + sb.substring(4));
+            for (int[] component : graph.tarjan(sorted)) {
+                cycles.add(toNodes(component, nodes));
+                cyclePaths.add(toNodes(graph.findCycle(component), nodes));
+            }
         }
 
-        currentIteration.addLast(node);
-        marks.put(node, Mark.TEMPORARY);
+        return new SortResult<>(orderedNodes, levelNodes, cycles, cyclePaths);
+    }
 
-        for (T successorNode : dependencyGraph.successors(node)) {
-            visitNode(dependencyGraph, successorNode, marks, orderedList, currentIteration);
+    private static <T> void indexOf(T node, Map<T, Integer> indices, List<T> nodes) {
+        if (indices.putIfAbsent(node, nodes.size()) == null) {
+            nodes.add(node);
         }
-
-        marks.put(node, Mark.PERMANENT);
-        currentIteration.removeLast();
-        orderedList.add(node);
     }
 
-    private enum Mark {
-        NOT_VISITED,
-        TEMPORARY,
-        PERMANENT
+    private static <T> List<T> toNodes(int[] indices, List<T> nodes) {
+        List<T> result = new ArrayList<>(indices.length);
+        for (int index : indices) {
+            result.add(nodes.get(index));
+        }
+        return result;
     }
-}
-
-
-
-
-
-
-
-
-
-
 
+    /**
+     * Compressed sparse row representation of a dependency graph.
+     */
+    private static final class Graph {
+
+        private final int nodeCount;
+        private final int[] dependencyStarts;
+        private final int[] dependencies;
+        private final int[] dependentStarts;
+        private final int[] dependents;
+
+        private Graph(int nodeCount, int[] edgeFrom, int[] edgeTo, int[] dependencyCounts, int[] dependentCounts) {
+            this.nodeCount = nodeCount;
+            this.dependencyStarts = prefixSums(dependencyCounts);
+            this.dependencies = new int[edgeFrom.length];
+            this.dependentStarts = prefixSums(dependentCounts);
+            this.dependents = new int[edgeFrom.length];
+
+            int[] dependencyOffsets = Arrays.copyOf(dependencyStarts, nodeCount);
+            int[] dependentOffsets = Arrays.copyOf(dependentStarts, nodeCount);
+            for (int i = 0; i < edgeFrom.length; i++) {
+                dependencies[dependencyOffsets[edgeFrom[i]]++] = edgeTo[i];
+                dependents[dependentOffsets[edgeTo[i]]++] = edgeFrom[i];
+            }
+        }
 
+        private static int[] prefixSums(int[] counts) {
+            int[] starts = new int[counts.length + 1];
+            for (int i = 0; i < counts.length; i++) {
+                starts[i + 1] = starts[i] + counts[i];
+            }
+            return starts;
+        }
 
+        /**
+         * Kahn's algorithm, always emitting the lowest index among the nodes whose dependencies are satisfied.
+         * The level of each node (the length of its longest dependency chain) is stored in the given array.
+         */
+        private int[] kahn(int[] levels) {
+            int[] remaining = new int[nodeCount];
+            IntHeap ready = new IntHeap(nodeCount);
+            for (int i = 0; i < nodeCount; i++) {
+                remaining[i] = dependencyStarts[i + 1] - dependencyStarts[i];
+                if (remaining[i] == 0) ready.push(i);
+            }
 
+            int[] order = new int[nodeCount];
+            int size = 0;
+            while (!ready.isEmpty()) {
+                int node = ready.pop();
+                order[size++] = node;
+                for (int i = dependentStarts[node]; i < dependentStarts[node + 1]; i++) {
+                    int dependent = dependents[i];
+                    levels[dependent] = Math.max(levels[dependent], levels[node] + 1);
+                    if (--remaining[dependent] == 0) ready.push(dependent);
+                }
+            }
+            return size == nodeCount ? order : Arrays.copyOf(order, size);
+        }
 
+        /**
+         * Iterative Tarjan's algorithm over the unsorted nodes.
+         * @return The strongly connected components which form a cycle.
+         */
+        private List<int[]> tarjan(boolean[] sorted) {
+            int[] indices = new int[nodeCount];
+            Arrays.fill(indices, -1);
+            int[] lowLinks = new int[nodeCount];
+            boolean[] onStack = new boolean[nodeCount];
+            int[] stack = new int[nodeCount];
+            int stackSize = 0;
+            int[] callStack = new int[nodeCount];
+            int[] edgePointers = new int[nodeCount];
+            int index = 0;
+
+            List<int[]> components = new ArrayList<>();
+            for (int root = 0; root < nodeCount; root++) {
+                if (sorted[root] || indices[root] != -1) continue;
+
+                int callSize = 0;
+                callStack[callSize++] = root;
+                indices[root] = lowLinks[root] = index++;
+                edgePointers[root] = dependencyStarts[root];
+                stack[stackSize++] = root;
+                onStack[root] = true;
+
+                while (callSize > 0) {
+                    int node = callStack[callSize - 1];
+                    if (edgePointers[node] < dependencyStarts[node + 1]) {
+                        int next = dependencies[edgePointers[node]++];
+                        if (sorted[next]) continue;
+
+                        if (indices[next] == -1) {
+                            indices[next] = lowLinks[next] = index++;
+                            edgePointers[next] = dependencyStarts[next];
+                            stack[stackSize++] = next;
+                            onStack[next] = true;
+                            callStack[callSize++] = next;
+                        } else if (onStack[next]) {
+                            lowLinks[node] = Math.min(lowLinks[node], indices[next]);
+                        }
+                        continue;
+                    }
+
+                    callSize--;
+                    if (callSize > 0) {
+                        int parent = callStack[callSize - 1];
+                        lowLinks[parent] = Math.min(lowLinks[parent], lowLinks[node]);
+                    }
+
+                    if (lowLinks[node] == indices[node]) {
+                        int start = stackSize;
+                        do {
+                            onStack[stack[--start]] = false;
+                        } while (stack[start] != node);
+
+                        int[] component = Arrays.copyOfRange(stack, start, stackSize);
+                        stackSize = start;
+                        if (component.length > 1 || hasDependency(node, node)) {
+                            Arrays.sort(component);
+                            components.add(component);
+                        }
+                    }
+                }
+            }
 
+            components.sort((c1, c2) -> Integer.compare(c1[0], c2[0]));
+            return components;
+        }
 
+        private boolean hasDependency(int node, int dependency) {
+            for (int i = dependencyStarts[node]; i < dependencyStarts[node + 1]; i++) {
+                if (dependencies[i] == dependency) return true;
+            }
+            return false;
+        }
 
+        /**
+         * Finds a dependency path within the given (sorted) strongly connected component which forms a cycle.
+         * @return The path, where the first node is repeated at the end.
+         */
+        private int[] findCycle(int[] component) {
+            int[] positions = new int[component.length];
+            Arrays.fill(positions, -1);
+            int[] path = new int[component.length + 1];
+            int length = 0;
+
+            int node = component[0];
+            int position;
+            while ((position = Arrays.binarySearch(component, node)) >= 0 && positions[position] == -1) {
+                positions[position] = length;
+                path[length++] = node;
+                for (int i = dependencyStarts[node]; i < dependencyStarts[node + 1]; i++) {
+                    if (Arrays.binarySearch(component, dependencies[i]) >= 0) {
+                        node = dependencies[i];
+                        break;
+                    }
+                }
+            }
 
+            int cycleStart = positions[position];
+            int[] cycle = Arrays.copyOfRange(path, cycleStart, length + 1);
+            cycle[cycle.length - 1] = node;
+            return cycle;
+        }
+    }
 
+    /**
+     * Binary min-heap of primitive ints.
+     */
+    private static final class IntHeap {
 
+        private final int[] heap;
+        private int size;
 
+        private IntHeap(int capacity) {
+            this.heap = new int[capacity];
+            this.size = 0;
+        }
 
+        private boolean isEmpty() {
+            return size == 0;
+        }
 
+        private void push(int value) {
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (heap[parent] <= value) break;
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            heap[i] = value;
+        }
 
+        private int pop() {
+            int result = heap[0];
+            int value = heap[--size];
+            int i = 0;
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && heap[child + 1] < heap[child]) child++;
+                if (value <= heap[child]) break;
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = value;
+            return result;
+        }
+    }
 
+    /**
+     * The result of a topological sort.
+     */
+    public static final class SortResult<T> {
+
+        private final List<T> order;
+        private final List<List<T>> levels;
+        private final List<List<T>> cycles;
+        private final List<List<T>> cyclePaths;
+
+        private SortResult(List<T> order, List<List<T>> levels, List<List<T>> cycles, List<List<T>> cyclePaths) {
+            this.order = Collections.unmodifiableList(order);
+            this.levels = Collections.unmodifiableList(levels);
+            this.cycles = Collections.unmodifiableList(cycles);
+            this.cyclePaths = Collections.unmodifiableList(cyclePaths);
+        }
 
+        /**
+         * Retrieves the topological order of all nodes which are not (transitively) part of a cycle.
+         */
+        public List<T> getOrder() {
+            return order;
+        }
 
+        /**
+         * Retrieves the nodes of {@link #getOrder()} grouped by dependency level.
+         * Nodes in a level only depend on nodes in preceding levels, and appear in the same relative order.
+         */
+        public List<List<T>> getLevels() {
+            return levels;
+        }
 
+        public boolean hasCycles() {
+            return !cycles.isEmpty();
+        }
 
+        /**
+         * Retrieves the strongly connected components which form a cycle.
+         */
+        public List<List<T>> getCycles() {
+            return cycles;
+        }
 
+        /**
+         * Retrieves a dependency path for each cycle, where the first node is repeated at the end.
+         */
+        public List<List<T>> getCyclePaths() {
+            return cyclePaths;
+        }
 
+        /**
+         * Describes all cycles, e.g. "Circular dependency detected: A -> B -> A".
+         */
+        public String getCycleMessage() {
+            StringBuilder sb = new StringBuilder(cyclePaths.size() > 1
+                    ? "Circular dependencies detected: "
+                    : "Circular dependency detected: ");
+            for (int i = 0; i < cyclePaths.size(); i++) {
+                if (i > 0) sb.append("; ");
+
+                List<T> path = cyclePaths.get(i);
+                for (int j = 0; j < path.size(); j++) {
+                    if (j > 0) sb.append(" -> ");
+                    sb.append(path.get(j));
+                }
+            }
+            return sb.toString();
+        }
+    }
+}
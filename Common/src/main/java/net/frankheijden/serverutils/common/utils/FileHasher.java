@@ -0,0 +1,84 @@
+package net.frankheijden.serverutils.common.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+import net.frankheijden.serverutils.common.entities.FileFingerprint;
+
+/**
+ * Hashes files by streaming them through a reusable direct buffer into a CRC32 checksum,
+ * such that (large) jars are never copied onto the heap.
+ * Hashes are cached by the {@link FileFingerprint} of the file, an unchanged file is thus never read twice.
+ */
+public final class FileHasher {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final ThreadLocal<ByteBuffer> buffers = ThreadLocal.withInitial(
+            () -> ByteBuffer.allocateDirect(BUFFER_SIZE)
+    );
+    private static final Map<String, CachedHash> cache = new ConcurrentHashMap<>();
+
+    private FileHasher() {}
+
+    /**
+     * Retrieves the hash of the file at the given path, only reading the file if it changed since the last call.
+     * @return The hash, or null if the file could not be read.
+     */
+    public static String hash(Path path) {
+        FileFingerprint fingerprint = FileFingerprint.of(path.toFile());
+        if (fingerprint == null) {
+            cache.remove(path.toAbsolutePath().toString());
+            return null;
+        }
+
+        CachedHash cached = cache.get(fingerprint.getPath());
+        if (cached != null && cached.fingerprint.equals(fingerprint)) return cached.hash;
+
+        String hash;
+        try {
+            hash = String.format(Locale.ROOT, "%08x-%d", checksum(path), fingerprint.getSize());
+        } catch (IOException ex) {
+            return null;
+        }
+
+        // Only cache the hash if the file was not modified while reading it
+        if (fingerprint.equals(FileFingerprint.of(path.toFile()))) {
+            cache.put(fingerprint.getPath(), new CachedHash(fingerprint, hash));
+        }
+        return hash;
+    }
+
+    /**
+     * Computes the CRC32 checksum of the contents of the file at the given path.
+     */
+    public static long checksum(Path path) throws IOException {
+        ByteBuffer buffer = buffers.get();
+        CRC32 crc = new CRC32();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer.clear();
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                crc.update(buffer);
+                buffer.clear();
+            }
+        }
+        return crc.getValue();
+    }
+
+    private static final class CachedHash {
+
+        private final FileFingerprint fingerprint;
+        private final String hash;
+
+        private CachedHash(FileFingerprint fingerprint, String hash) {
+            this.fingerprint = fingerprint;
+            this.hash = hash;
+        }
+    }
+}
@@ -10,8 +10,6 @@ import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 
 public class FileUtils {
 
@@ -38,17 +36,13 @@ public class FileUtils {
 
     /**
      * Get the Hash of a file at given path.
+     * The file is streamed instead of read onto the heap, and only read again once its size or timestamp changed.
      *
      * @param path The path
      * @return The file's hash
+     * @see FileHasher#hash(Path)
      */
     public static String getHash(Path path) {
-        byte[] digest;
-        try {
-            digest = MessageDigest.getInstance("MD5").digest(Files.readAllBytes(path));
-        } catch (IOException | NoSuchAlgorithmException ex) {
-            return null;
-        }
-        return StringUtils.bytesToHex(digest);
+        return FileHasher.hash(path);
     }
 }
@@ -0,0 +1,249 @@
+package net.frankheijden.serverutils.common.utils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * Records the duration of each phase of plugin lifecycle operations (e.g. a reload), using monotonic timers.
+ * The last finished operations are kept in a lock-free ring buffer.
+ * Phases are recorded into the operation attached to the current thread, and ignored if there is none.
+ */
+public class LifecycleTimings {
+
+    /**
+     * The plugin id of phases which apply to all plugins of an operation.
+     */
+    public static final String ALL_PLUGINS = "*";
+
+    private final AtomicReferenceArray<Operation> operations;
+    private final AtomicLong finished;
+    private final ThreadLocal<Operation> current;
+
+    /**
+     * Constructs a new LifecycleTimings instance.
+     * @param capacity The amount of finished operations to keep.
+     */
+    public LifecycleTimings(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("Capacity must be positive");
+        this.operations = new AtomicReferenceArray<>(capacity);
+        this.finished = new AtomicLong();
+        this.current = new ThreadLocal<>();
+    }
+
+    /**
+     * Starts a new operation, which is not attached to any thread yet.
+     */
+    public Operation begin(String name) {
+        return new Operation(name);
+    }
+
+    /**
+     * Retrieves the operation attached to the current thread, or null if there is none.
+     */
+    public Operation getCurrentOperation() {
+        return current.get();
+    }
+
+    /**
+     * Runs the given supplier with the given operation attached to the current thread.
+     * This allows an operation to span stages which run on different threads.
+     */
+    public <R> R attach(Operation operation, Supplier<R> supplier) {
+        Operation previous = current.get();
+        current.set(operation);
+        try {
+            return supplier.get();
+        } finally {
+            if (previous == null) {
+                current.remove();
+            } else {
+                current.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Runs the given supplier as an operation.
+     * If an operation is already attached to the current thread, the phases are recorded into that operation instead.
+     */
+    public <R> R operation(String name, Supplier<R> supplier) {
+        if (current.get() != null) return supplier.get();
+
+        Operation operation = begin(name);
+        try {
+            return attach(operation, supplier);
+        } finally {
+            finish(operation);
+        }
+    }
+
+    /**
+     * Marks the given operation as finished, and stores it in the ring buffer.
+     * The completion callbacks of the operation are run first, with the operation attached to the current thread.
+     */
+    public void finish(Operation operation) {
+        for (Runnable callback : operation.complete()) {
+            attach(operation, () -> {
+                try {
+                    callback.run();
+                } catch (RuntimeException ex) {
+                    ex.printStackTrace();
+                }
+                return null;
+            });
+        }
+
+        operation.endNanos = System.nanoTime();
+        long index = finished.getAndIncrement();
+        operations.set((int) (index % operations.length()), operation);
+    }
+
+    /**
+     * Times the given phase of a plugin.
+     */
+    public void time(String pluginId, String phase, Runnable runnable) {
+        long start = System.nanoTime();
+        try {
+            runnable.run();
+        } finally {
+            record(pluginId, phase, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Times the given phase of a plugin, returning the supplied value.
+     */
+    public <R> R time(String pluginId, String phase, Supplier<R> supplier) {
+        long start = System.nanoTime();
+        try {
+            return supplier.get();
+        } finally {
+            record(pluginId, phase, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Records a phase of a plugin which took the given amount of nanoseconds.
+     */
+    public void record(String pluginId, String phase, long nanos) {
+        Operation operation = current.get();
+        if (operation != null) operation.phases.add(new Phase(pluginId, phase, nanos));
+    }
+
+    /**
+     * Retrieves the finished operations which are still in the ring buffer, newest first.
+     */
+    public List<Operation> getOperations() {
+        long count = finished.get();
+        int capacity = operations.length();
+        int size = (int) Math.min(count, capacity);
+
+        List<Operation> result = new ArrayList<>(size);
+        for (long i = count - 1; i >= count - size; i--) {
+            Operation operation = operations.get((int) (i % capacity));
+            if (operation != null) result.add(operation);
+        }
+        return result;
+    }
+
+    public static final class Operation {
+
+        private final String name;
+        private final long startMillis;
+        private final long startNanos;
+        private final Queue<Phase> phases;
+        private final List<Runnable> callbacks;
+        private boolean finished;
+        private volatile long endNanos;
+
+        private Operation(String name) {
+            this.name = name;
+            this.startMillis = System.currentTimeMillis();
+            this.startNanos = System.nanoTime();
+            this.phases = new ConcurrentLinkedQueue<>();
+            this.callbacks = new ArrayList<>();
+            this.finished = false;
+        }
+
+        /**
+         * Registers a callback which is run once the operation finishes, on the thread finishing it.
+         * @return Whether the callback was registered, false if the operation already finished.
+         */
+        public synchronized boolean whenFinished(Runnable callback) {
+            if (finished) return false;
+            callbacks.add(callback);
+            return true;
+        }
+
+        public synchronized boolean isFinished() {
+            return finished;
+        }
+
+        private synchronized List<Runnable> complete() {
+            finished = true;
+            List<Runnable> completed = new ArrayList<>(callbacks);
+            callbacks.clear();
+            return completed;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getStartMillis() {
+            return startMillis;
+        }
+
+        public long getDurationNanos() {
+            return endNanos - startNanos;
+        }
+
+        public List<Phase> getPhases() {
+            return new ArrayList<>(phases);
+        }
+
+        /**
+         * Sums the durations of the recorded phases per plugin, in the order they were first recorded.
+         */
+        public Map<String, Map<String, Long>> getPluginPhases() {
+            Map<String, Map<String, Long>> pluginPhases = new LinkedHashMap<>();
+            for (Phase phase : phases) {
+                pluginPhases.computeIfAbsent(phase.pluginId, k -> new LinkedHashMap<>())
+                        .merge(phase.name, phase.nanos, Long::sum);
+            }
+            return pluginPhases;
+        }
+    }
+
+    public static final class Phase {
+
+        private final String pluginId;
+        private final String name;
+        private final long nanos;
+
+        private Phase(String pluginId, String name, long nanos) {
+            this.pluginId = pluginId;
+            this.name = name;
+            this.nanos = nanos;
+        }
+
+        public String getPluginId() {
+            return pluginId;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package net.frankheijden.serverutils.common.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Keeps track of the memory footprint of loaded plugins.
+ * The metaspace a plugin uses is estimated by sampling the used metaspace before and after its load, which is only
+ * meaningful if no other classes are loaded concurrently. Hence the delta is only recorded if no other load overlapped
+ * with it (e.g. plugins of a wave which are loaded in parallel), otherwise the metaspace of the plugin is unknown.
+ * Reports are gathered off the main thread, and cached.
+ */
+public class PluginFootprints {
+
+    public static final long UNKNOWN = -1;
+
+    private final Map<String, Long> metaspaceDeltas;
+    private final AtomicInteger activeLoads;
+    private final AtomicLong startedLoads;
+    private CompletableFuture<Map<String, Footprint>> report;
+    private long reportMillis;
+
+    /**
+     * Constructs a new PluginFootprints instance.
+     */
+    public PluginFootprints() {
+        this.metaspaceDeltas = new ConcurrentHashMap<>();
+        this.activeLoads = new AtomicInteger();
+        this.startedLoads = new AtomicLong();
+    }
+
+    /**
+     * Samples the used metaspace right before a load.
+     * Each sample must be passed to {@link #endLoad(LoadSample, Collection)}, also if the load failed.
+     */
+    public LoadSample beginLoad() {
+        boolean alone = activeLoads.getAndIncrement() == 0;
+        return new LoadSample(startedLoads.incrementAndGet(), alone, getUsedMetaspace());
+    }
+
+    /**
+     * Records the metaspace used by a load. The delta is only recorded if the load loaded a single plugin, and no
+     * other load overlapped with it. Otherwise, the metaspace of the loaded plugins is unknown.
+     * @param sample The sample taken by {@link #beginLoad()}.
+     * @param pluginIds The plugins which were loaded, or empty if the load failed.
+     */
+    public void endLoad(LoadSample sample, Collection<String> pluginIds) {
+        long metaspaceAfter = getUsedMetaspace();
+        boolean alone = sample.alone && startedLoads.get() == sample.id;
+        activeLoads.decrementAndGet();
+        if (pluginIds.isEmpty()) return;
+
+        if (pluginIds.size() == 1 && alone && sample.metaspace != UNKNOWN && metaspaceAfter != UNKNOWN) {
+            metaspaceDeltas.put(pluginIds.iterator().next(), Math.max(0, metaspaceAfter - sample.metaspace));
+        } else {
+            pluginIds.forEach(metaspaceDeltas::remove);
+        }
+        invalidate();
+    }
+
+    /**
+     * Forgets the recorded metaspace of an unloaded plugin.
+     */
+    public void forget(String pluginId) {
+        metaspaceDeltas.remove(pluginId);
+        invalidate();
+    }
+
+    public long getMetaspaceDelta(String pluginId) {
+        return metaspaceDeltas.getOrDefault(pluginId, UNKNOWN);
+    }
+
+    /**
+     * Retrieves the cached report if it is not older than the given age, or gathers a new one.
+     * @param maxAgeMillis The maximum age of a cached report.
+     * @param gatherer Gathers a new report, keyed by plugin id.
+     */
+    public synchronized CompletableFuture<Map<String, Footprint>> getReport(
+            long maxAgeMillis,
+            Supplier<CompletableFuture<Map<String, Footprint>>> gatherer
+    ) {
+        long now = System.currentTimeMillis();
+        if (report == null || (report.isDone() && now - reportMillis > maxAgeMillis)) {
+            report = gatherer.get();
+            reportMillis = now;
+        }
+        return report;
+    }
+
+    private synchronized void invalidate() {
+        if (report != null && report.isDone()) report = null;
+    }
+
+    /**
+     * Sums the used memory of the metaspace (or permanent generation) memory pools.
+     * @return The used bytes, or {@link #UNKNOWN} if no such pool exists.
+     */
+    public static long getUsedMetaspace() {
+        long used = UNKNOWN;
+        for (MemoryPoolMXBean bean : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (bean.getType() != MemoryType.NON_HEAP) continue;
+
+            String name = bean.getName();
+            if (name.contains("Metaspace") || name.contains("Perm Gen")) {
+                used = Math.max(used, 0) + bean.getUsage().getUsed();
+            }
+        }
+        return used;
+    }
+
+    /**
+     * Measures the footprint of a plugin, reading the sizes from the central directory of its jar.
+     * @param classes The amount of classes loaded by the plugin's classloader, or {@link #UNKNOWN}.
+     * @param metaspace The estimated metaspace of the plugin, or {@link #UNKNOWN}.
+     */
+    public static Footprint measure(File jar, long classes, long metaspace) throws IOException {
+        long compressedSize = 0;
+        long size = 0;
+        for (ZipCentralDirectory.Entry entry : ZipCentralDirectory.read(jar.toPath()).getEntries()) {
+            compressedSize += entry.getCompressedSize();
+            size += entry.getSize();
+        }
+        return new Footprint(classes, compressedSize, size, metaspace);
+    }
+
+    public static final class LoadSample {
+
+        private final long id;
+        private final boolean alone;
+        private final long metaspace;
+
+        private LoadSample(long id, boolean alone, long metaspace) {
+            this.id = id;
+            this.alone = alone;
+            this.metaspace = metaspace;
+        }
+    }
+
+    public static final class Footprint {
+
+        private final long classes;
+        private final long compressedSize;
+        private final long size;
+        private final long metaspace;
+
+        private Footprint(long classes, long compressedSize, long size, long metaspace) {
+            this.classes = classes;
+            this.compressedSize = compressedSize;
+            this.size = size;
+            this.metaspace = metaspace;
+        }
+
+        public long getClasses() {
+            return classes;
+        }
+
+        public long getCompressedSize() {
+            return compressedSize;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getMetaspace() {
+            return metaspace;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package net.frankheijden.serverutils.common.utils;
+
+import java.io.File;
+import java.util.concurrent.atomic.AtomicLong;
+import net.frankheijden.serverutils.common.entities.FileFingerprint;
+
+/**
+ * Detects whether writes to a jar file have settled, i.e. its size and modification time have been stable for a
+ * window and its end of central directory record is valid. Prevents reloading a jar which is still being copied.
+ */
+public class QuiescenceDetector {
+
+    private final long windowMillis;
+    private final AtomicLong touches;
+    private FileFingerprint fingerprint;
+    private volatile long stableSince;
+
+    public QuiescenceDetector(long windowMillis) {
+        this.windowMillis = windowMillis;
+        this.touches = new AtomicLong();
+        this.fingerprint = null;
+        this.stableSince = System.currentTimeMillis();
+    }
+
+    public long getWindowMillis() {
+        return windowMillis;
+    }
+
+    /**
+     * Records a write to the file, restarting the window. Does not access the file.
+     */
+    public void touch() {
+        this.stableSince = System.currentTimeMillis();
+        this.touches.incrementAndGet();
+    }
+
+    /**
+     * Retrieves a stamp which changes on every {@link #touch()}.
+     * Comparing stamps tells whether the file was written to in between.
+     */
+    public long getTouchStamp() {
+        return touches.get();
+    }
+
+    /**
+     * Checks whether the file has been quiescent for the window.
+     * @return The amount of milliseconds to wait before checking again, or zero if the file is quiescent.
+     */
+    public synchronized long check(File file) {
+        long now = System.currentTimeMillis();
+        FileFingerprint current = FileFingerprint.of(file);
+        if (current == null) {
+            stableSince = now;
+            return getRetryMillis();
+        }
+
+        if (!current.equals(fingerprint)) {
+            // The file was last written at its modification time, or at the last write event if more recent
+            fingerprint = current;
+            stableSince = Math.max(stableSince, current.getLastModified());
+        }
+
+        long remaining = stableSince + windowMillis - now;
+        if (remaining > 0) return remaining;
+
+        if (!ZipCentralDirectory.isComplete(file.toPath())) {
+            stableSince = now;
+            return getRetryMillis();
+        }
+        return 0;
+    }
+
+    private long getRetryMillis() {
+        // A missing or incomplete file is never quiescent, not even with an empty window
+        return Math.max(1, windowMillis);
+    }
+}
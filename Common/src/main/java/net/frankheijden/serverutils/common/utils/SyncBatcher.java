@@ -0,0 +1,115 @@
+package net.frankheijden.serverutils.common.utils;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+/**
+ * Coalesces requests to synchronize changed values (e.g. commands) into a single flush.
+ * Requests made while a lifecycle operation is in flight are flushed once that operation finishes, such that an
+ * operation consisting of multiple stages (e.g. a reload: disable + enable) flushes exactly once.
+ * Requests made outside of an operation are flushed by a task of the given scheduler.
+ */
+public class SyncBatcher<T> {
+
+    private final LifecycleTimings timings;
+    private final Executor scheduler;
+    private final Flusher<T> flusher;
+    private final Set<T> values;
+    private LifecycleTimings.Operation operation;
+    private boolean pending;
+    private long generation;
+
+    /**
+     * Constructs a new SyncBatcher.
+     * @param timings The timings whose current operation defers the flush.
+     * @param scheduler Runs the flush of requests made outside of an operation, e.g. on the next tick.
+     * @param flusher Flushes the changed values.
+     */
+    public SyncBatcher(LifecycleTimings timings, Executor scheduler, Flusher<T> flusher) {
+        this.timings = timings;
+        this.scheduler = scheduler;
+        this.flusher = flusher;
+        this.values = new HashSet<>();
+        this.pending = false;
+        this.generation = 0;
+    }
+
+    /**
+     * Merges the changed values, and defers a flush if none is pending yet.
+     */
+    public void request(Collection<T> changed) {
+        LifecycleTimings.Operation current = timings.getCurrentOperation();
+        long flushGeneration;
+        synchronized (this) {
+            this.values.addAll(changed);
+            if (current != null) this.operation = current;
+            if (pending) return;
+
+            pending = true;
+            flushGeneration = generation;
+        }
+
+        Runnable flush = () -> flush(flushGeneration);
+        if (current == null || !current.whenFinished(flush)) {
+            scheduler.execute(flush);
+        }
+    }
+
+    /**
+     * Flushes the changed values immediately, if there are any.
+     * @param full Whether the flush should fully synchronize, rather than only the changed values.
+     * @return Whether a flush was performed.
+     */
+    public boolean flushNow(boolean full) {
+        return flushNow(Collections.emptySet(), full);
+    }
+
+    /**
+     * Merges the changed values, and flushes all changed values immediately if there are any.
+     * Unlike {@link #request(Collection)}, this does not depend on the scheduler.
+     * @param full Whether the flush should fully synchronize, rather than only the changed values.
+     * @return Whether a flush was performed.
+     */
+    public boolean flushNow(Collection<T> changedNow, boolean full) {
+        Set<T> changed;
+        LifecycleTimings.Operation op;
+        synchronized (this) {
+            values.addAll(changedNow);
+            if (!pending && values.isEmpty()) return false;
+            changed = new HashSet<>(values);
+            op = operation;
+            values.clear();
+            operation = null;
+            pending = false;
+            generation++;
+        }
+
+        flusher.flush(changed, op, full);
+        return true;
+    }
+
+    private void flush(long flushGeneration) {
+        synchronized (this) {
+            // Already flushed by flushNow, a newer request deferred its own flush
+            if (flushGeneration != generation) return;
+        }
+        flushNow(false);
+    }
+
+    public synchronized boolean isPending() {
+        return pending;
+    }
+
+    public interface Flusher<T> {
+
+        /**
+         * Flushes the given changed values.
+         * @param operation The last operation during which a sync was requested, or null if there was none.
+         * @param full Whether to fully synchronize, rather than only the changed values.
+         */
+        void flush(Set<T> changed, LifecycleTimings.Operation operation, boolean full);
+    }
+}
@@ -0,0 +1,354 @@
+package net.frankheijden.serverutils.common.utils;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Lightweight reader of the central directory of a zip (jar) file.
+ * Only the central directory is read upfront; entry data is read and inflated on request,
+ * without constructing a {@link java.util.jar.JarFile} or verifying signatures.
+ */
+public final class ZipCentralDirectory {
+
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+    private static final int END_SIGNATURE = 0x06054b50;
+    private static final int ZIP64_END_SIGNATURE = 0x06064b50;
+    private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+
+    private static final int LOCAL_HEADER_LENGTH = 30;
+    private static final int CENTRAL_HEADER_LENGTH = 46;
+    private static final int END_LENGTH = 22;
+    private static final int ZIP64_END_LENGTH = 56;
+    private static final int ZIP64_LOCATOR_LENGTH = 20;
+    private static final int MAX_COMMENT_LENGTH = 0xFFFF;
+    private static final int ZIP64_EXTRA_ID = 0x0001;
+
+    private static final int STORED = 0;
+    private static final int DEFLATED = 8;
+
+    private final Path path;
+    private final List<Entry> entries;
+    private final Map<String, Entry> entriesByName;
+
+    private ZipCentralDirectory(Path path, List<Entry> entries) {
+        this.path = path;
+        this.entries = Collections.unmodifiableList(entries);
+        this.entriesByName = new HashMap<>(entries.size());
+        for (Entry entry : entries) {
+            this.entriesByName.putIfAbsent(entry.getName(), entry);
+        }
+    }
+
+    /**
+     * Reads the central directory of the zip file at given path.
+     * @throws ZipException Iff the file is not a (supported) zip file.
+     */
+    public static ZipCentralDirectory read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return read(path, channel);
+        }
+    }
+
+    /**
+     * Checks whether the file at given path is a complete zip file, i.e. whether its end of central directory
+     * record is present and points to a central directory within the file.
+     * Only the tail of the file and the first central directory header are read.
+     */
+    public static boolean isComplete(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            End end = readEnd(path, channel);
+            if (end.entryCount == 0) return true;
+            return readFully(channel, end.directoryOffset, 4).getInt(0) == CENTRAL_HEADER_SIGNATURE;
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    private static ZipCentralDirectory read(Path path, FileChannel channel) throws IOException {
+        End end = readEnd(path, channel);
+        ByteBuffer directory = readFully(channel, end.directoryOffset, (int) end.directorySize);
+        List<Entry> entries = new ArrayList<>((int) Math.min(end.entryCount, 1 << 16));
+        int position = 0;
+        while (position + CENTRAL_HEADER_LENGTH <= directory.limit()) {
+            if (directory.getInt(position) != CENTRAL_HEADER_SIGNATURE) break;
+
+            int method = directory.getShort(position + 10) & 0xFFFF;
+            int crc = directory.getInt(position + 16);
+            long compressedSize = directory.getInt(position + 20) & 0xFFFFFFFFL;
+            long uncompressedSize = directory.getInt(position + 24) & 0xFFFFFFFFL;
+            int nameLength = directory.getShort(position + 28) & 0xFFFF;
+            int extraLength = directory.getShort(position + 30) & 0xFFFF;
+            int commentLength = directory.getShort(position + 32) & 0xFFFF;
+            long localHeaderOffset = directory.getInt(position + 42) & 0xFFFFFFFFL;
+
+            int namePosition = position + CENTRAL_HEADER_LENGTH;
+            if (namePosition + nameLength + extraLength > directory.limit()) {
+                throw new ZipException("Truncated central directory: " + path);
+            }
+
+            byte[] nameBytes = new byte[nameLength];
+            directory.position(namePosition);
+            directory.get(nameBytes);
+            String name = new String(nameBytes, StandardCharsets.UTF_8);
+
+            if (compressedSize == 0xFFFFFFFFL || uncompressedSize == 0xFFFFFFFFL || localHeaderOffset == 0xFFFFFFFFL) {
+                int extraPosition = namePosition + nameLength;
+                int extraEnd = extraPosition + extraLength;
+                while (extraPosition + 4 <= extraEnd) {
+                    int id = directory.getShort(extraPosition) & 0xFFFF;
+                    int length = directory.getShort(extraPosition + 2) & 0xFFFF;
+                    int fieldPosition = extraPosition + 4;
+                    if (id == ZIP64_EXTRA_ID) {
+                        if (uncompressedSize == 0xFFFFFFFFL && fieldPosition + 8 <= extraEnd) {
+                            uncompressedSize = directory.getLong(fieldPosition);
+                            fieldPosition += 8;
+                        }
+                        if (compressedSize == 0xFFFFFFFFL && fieldPosition + 8 <= extraEnd) {
+                            compressedSize = directory.getLong(fieldPosition);
+                            fieldPosition += 8;
+                        }
+                        if (localHeaderOffset == 0xFFFFFFFFL && fieldPosition + 8 <= extraEnd) {
+                            localHeaderOffset = directory.getLong(fieldPosition);
+                        }
+                        break;
+                    }
+                    extraPosition = fieldPosition + length;
+                }
+            }
+
+            entries.add(new Entry(name, method, crc, compressedSize, uncompressedSize, localHeaderOffset));
+            position = namePosition + nameLength + extraLength + commentLength;
+        }
+
+        return new ZipCentralDirectory(path, entries);
+    }
+
+    private static End readEnd(Path path, FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size < END_LENGTH) throw new ZipException("File too small to be a zip file: " + path);
+
+        int tailLength = (int) Math.min(size, END_LENGTH + MAX_COMMENT_LENGTH + ZIP64_LOCATOR_LENGTH);
+        long tailOffset = size - tailLength;
+        ByteBuffer tail = readFully(channel, tailOffset, tailLength);
+
+        int endPosition = -1;
+        for (int i = tailLength - END_LENGTH; i >= 0; i--) {
+            if (tail.getInt(i) == END_SIGNATURE && i + END_LENGTH + (tail.getShort(i + 20) & 0xFFFF) <= tailLength) {
+                endPosition = i;
+                break;
+            }
+        }
+        if (endPosition < 0) throw new ZipException("End of central directory not found: " + path);
+
+        long entryCount = tail.getShort(endPosition + 10) & 0xFFFF;
+        long directorySize = tail.getInt(endPosition + 12) & 0xFFFFFFFFL;
+        long directoryOffset = tail.getInt(endPosition + 16) & 0xFFFFFFFFL;
+
+        int locatorPosition = endPosition - ZIP64_LOCATOR_LENGTH;
+        if (locatorPosition >= 0 && tail.getInt(locatorPosition) == ZIP64_LOCATOR_SIGNATURE) {
+            long zip64EndOffset = tail.getLong(locatorPosition + 8);
+            ByteBuffer zip64End = readFully(channel, zip64EndOffset, ZIP64_END_LENGTH);
+            if (zip64End.getInt(0) != ZIP64_END_SIGNATURE) {
+                throw new ZipException("Invalid zip64 end of central directory: " + path);
+            }
+
+            entryCount = zip64End.getLong(32);
+            directorySize = zip64End.getLong(40);
+            directoryOffset = zip64End.getLong(48);
+        }
+
+        if (directorySize > Integer.MAX_VALUE || directoryOffset + directorySize > size) {
+            throw new ZipException("Invalid central directory bounds: " + path);
+        }
+        return new End(entryCount, directorySize, directoryOffset);
+    }
+
+    /**
+     * Reads the data of the first entry present in the given zip file, in order of the given names.
+     * The zip file is opened only once, and only the found entry is inflated.
+     * @return The name and uncompressed data of the entry, or empty if none of the entries exist.
+     */
+    public static Optional<Map.Entry<String, byte[]>> readFirstEntry(Path path, String... names) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ZipCentralDirectory directory = read(path, channel);
+            for (String name : names) {
+                Optional<Entry> entryOptional = directory.getEntry(name);
+                if (entryOptional.isPresent()) {
+                    byte[] data = directory.readEntry(channel, entryOptional.get());
+                    return Optional.of(new AbstractMap.SimpleImmutableEntry<>(name, data));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    public Optional<Entry> getEntry(String name) {
+        return Optional.ofNullable(entriesByName.get(name));
+    }
+
+    /**
+     * Reads and inflates the data of the given entry.
+     */
+    public byte[] readEntry(Entry entry) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return readEntry(channel, entry);
+        }
+    }
+
+    private byte[] readEntry(FileChannel channel, Entry entry) throws IOException {
+        if (entry.getSize() > Integer.MAX_VALUE - 8 || entry.getCompressedSize() > Integer.MAX_VALUE - 8) {
+            throw new ZipException("Entry too large: " + entry.getName());
+        }
+
+        ByteBuffer localHeader = readFully(channel, entry.getLocalHeaderOffset(), LOCAL_HEADER_LENGTH);
+        if (localHeader.getInt(0) != LOCAL_HEADER_SIGNATURE) {
+            throw new ZipException("Invalid local header for entry: " + entry.getName());
+        }
+
+        long dataOffset = entry.getLocalHeaderOffset()
+                + LOCAL_HEADER_LENGTH
+                + (localHeader.getShort(26) & 0xFFFF)
+                + (localHeader.getShort(28) & 0xFFFF);
+        ByteBuffer compressed = readFully(channel, dataOffset, (int) entry.getCompressedSize());
+
+        byte[] data;
+        if (entry.getMethod() == STORED) {
+            data = new byte[compressed.remaining()];
+            compressed.get(data);
+        } else if (entry.getMethod() == DEFLATED) {
+            data = inflate(compressed, (int) entry.getSize(), entry.getName());
+        } else {
+            throw new ZipException("Unsupported compression method " + entry.getMethod() + ": " + entry.getName());
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, data.length);
+        if ((int) crc.getValue() != entry.getCrc()) {
+            throw new ZipException("CRC mismatch for entry: " + entry.getName());
+        }
+        return data;
+    }
+
+    private static byte[] inflate(ByteBuffer compressed, int size, String name) throws ZipException {
+        byte[] input = new byte[compressed.remaining() + 1]; // Trailing dummy byte, required by nowrap inflaters
+        compressed.get(input, 0, input.length - 1);
+
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(input);
+            byte[] data = new byte[size];
+            int offset = 0;
+            while (offset < size && !inflater.finished()) {
+                int inflated = inflater.inflate(data, offset, size - offset);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                offset += inflated;
+            }
+
+            if (offset != size) throw new ZipException("Unexpected end of deflated entry: " + name);
+            return data;
+        } catch (DataFormatException ex) {
+            ZipException zipException = new ZipException("Invalid deflated entry: " + name);
+            zipException.initCause(ex);
+            throw zipException;
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of zip file at offset " + (offset + buffer.position()));
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static final class End {
+
+        private final long entryCount;
+        private final long directorySize;
+        private final long directoryOffset;
+
+        private End(long entryCount, long directorySize, long directoryOffset) {
+            this.entryCount = entryCount;
+            this.directorySize = directorySize;
+            this.directoryOffset = directoryOffset;
+        }
+    }
+
+    public static final class Entry {
+
+        private final String name;
+        private final int method;
+        private final int crc;
+        private final long compressedSize;
+        private final long size;
+        private final long localHeaderOffset;
+
+        private Entry(String name, int method, int crc, long compressedSize, long size, long localHeaderOffset) {
+            this.name = name;
+            this.method = method;
+            this.crc = crc;
+            this.compressedSize = compressedSize;
+            this.size = size;
+            this.localHeaderOffset = localHeaderOffset;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getMethod() {
+            return method;
+        }
+
+        public int getCrc() {
+            return crc;
+        }
+
+        public long getCompressedSize() {
+            return compressedSize;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getLocalHeaderOffset() {
+            return localHeaderOffset;
+        }
+
+        public boolean isDirectory() {
+            return name.endsWith("/");
+        }
+    }
+}
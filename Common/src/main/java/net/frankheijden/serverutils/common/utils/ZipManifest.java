@@ -0,0 +1,150 @@
+package net.frankheijden.serverutils.common.utils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Captures the CRC32 checksums and sizes of the class and resource entries of a jar, as stored in its central
+ * directory. Comparing two manifests tells whether the contents of a rewritten jar changed, regardless of entry
+ * timestamps. Metadata which build tools regenerate on every build (the jar manifest, signatures and maven
+ * properties) is ignored.
+ */
+public final class ZipManifest {
+
+    private final Map<String, Checksum> checksums;
+
+    private ZipManifest(Map<String, Checksum> checksums) {
+        this.checksums = checksums;
+    }
+
+    /**
+     * Reads the manifest from the central directory of the jar at given path. The entry data is not read.
+     */
+    public static ZipManifest read(Path path) throws IOException {
+        List<ZipCentralDirectory.Entry> entries = ZipCentralDirectory.read(path).getEntries();
+        Map<String, Checksum> checksums = new HashMap<>(entries.size());
+        for (ZipCentralDirectory.Entry entry : entries) {
+            if (entry.isDirectory() || isIgnored(entry.getName())) continue;
+            checksums.put(entry.getName(), new Checksum(entry.getCrc(), entry.getSize()));
+        }
+        return new ZipManifest(checksums);
+    }
+
+    private static boolean isIgnored(String name) {
+        if (!name.startsWith("META-INF/")) return false;
+        if (name.equals("META-INF/MANIFEST.MF")) return true;
+        if (name.startsWith("META-INF/maven/") && name.endsWith("/pom.properties")) return true;
+
+        String upperName = name.toUpperCase(Locale.ROOT);
+        return name.indexOf('/', "META-INF/".length()) < 0 && (upperName.endsWith(".SF")
+                || upperName.endsWith(".RSA")
+                || upperName.endsWith(".DSA")
+                || upperName.endsWith(".EC"));
+    }
+
+    /**
+     * Compares this (old) manifest with a newer manifest.
+     */
+    public Diff diff(ZipManifest other) {
+        List<String> added = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
+        List<String> changed = new ArrayList<>();
+        for (Map.Entry<String, Checksum> entry : other.checksums.entrySet()) {
+            Checksum checksum = checksums.get(entry.getKey());
+            if (checksum == null) {
+                added.add(entry.getKey());
+            } else if (!checksum.equals(entry.getValue())) {
+                changed.add(entry.getKey());
+            }
+        }
+        for (String name : checksums.keySet()) {
+            if (!other.checksums.containsKey(name)) removed.add(name);
+        }
+
+        Collections.sort(added);
+        Collections.sort(removed);
+        Collections.sort(changed);
+        return new Diff(added, removed, changed);
+    }
+
+    public static final class Diff {
+
+        private final List<String> added;
+        private final List<String> removed;
+        private final List<String> changed;
+
+        private Diff(List<String> added, List<String> removed, List<String> changed) {
+            this.added = added;
+            this.removed = removed;
+            this.changed = changed;
+        }
+
+        public boolean isEmpty() {
+            return added.isEmpty() && removed.isEmpty() && changed.isEmpty();
+        }
+
+        public int size() {
+            return added.size() + removed.size() + changed.size();
+        }
+
+        public List<String> getAdded() {
+            return added;
+        }
+
+        public List<String> getRemoved() {
+            return removed;
+        }
+
+        public List<String> getChanged() {
+            return changed;
+        }
+
+        /**
+         * Formats the differing entries as "+added", "-removed" and "~changed", limited to the given amount.
+         */
+        public List<String> format(int limit) {
+            List<String> formatted = new ArrayList<>(Math.min(size(), limit));
+            addFormatted(formatted, "+", added, limit);
+            addFormatted(formatted, "-", removed, limit);
+            addFormatted(formatted, "~", changed, limit);
+            return formatted;
+        }
+
+        private static void addFormatted(List<String> formatted, String prefix, List<String> names, int limit) {
+            for (String name : names) {
+                if (formatted.size() >= limit) return;
+                formatted.add(prefix + name);
+            }
+        }
+    }
+
+    private static final class Checksum {
+
+        private final int crc;
+        private final long size;
+
+        private Checksum(int crc, long size) {
+            this.crc = crc;
+            this.size = size;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Checksum that = (Checksum) o;
+            return crc == that.crc && size == that.size;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * crc + Long.hashCode(size);
+        }
+    }
+}
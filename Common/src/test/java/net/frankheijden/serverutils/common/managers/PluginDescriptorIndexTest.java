@@ -0,0 +1,142 @@
+package net.frankheijden.serverutils.common.managers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.frankheijden.serverutils.common.entities.PluginDescriptorScan;
+import net.frankheijden.serverutils.common.entities.ServerUtilsPluginDescription;
+import net.frankheijden.serverutils.common.entities.exceptions.InvalidPluginDescriptionException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PluginDescriptorIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final AtomicInteger parses = new AtomicInteger();
+    private final List<Runnable> saves = new ArrayList<>();
+
+    @Test
+    void parseUnchangedJarOnce() throws IOException {
+        PluginDescriptorIndex<TestDescription> index = load();
+        File jar = writeJar("a.jar", "A");
+
+        assertThat(index.getDescription(jar).map(TestDescription::getId)).contains("A");
+        assertThat(index.getDescription(jar).map(TestDescription::getId)).contains("A");
+        assertThat(parses).hasValue(1);
+    }
+
+    @Test
+    void parseModifiedJarAgain() throws IOException {
+        PluginDescriptorIndex<TestDescription> index = load();
+        File[] jars = {writeJar("a.jar", "A")};
+        assertThat(index.getFile("A", jars)).contains(jars[0]);
+
+        // Same size, only the modification time tells the jar changed
+        writeJar("a.jar", "B");
+        assertThat(jars[0].setLastModified(jars[0].lastModified() + 2000)).isTrue();
+
+        assertThat(index.getFile("A", jars)).isEmpty();
+        assertThat(index.getFile("B", jars)).contains(jars[0]);
+    }
+
+    @Test
+    void saveOnceAndLoad() throws IOException {
+        PluginDescriptorIndex<TestDescription> index = load();
+        File[] jars = {writeJar("a.jar", "A"), writeJar("b.jar", "B")};
+        index.getDescription(jars[0]);
+        index.getDescription(jars[1]);
+
+        assertThat(saves).hasSize(1);
+        saves.get(0).run();
+
+        assertThat(load().getFile("B", jars)).contains(jars[1]);
+        assertThat(parses).hasValue(2);
+    }
+
+    @Test
+    void scan() throws IOException {
+        PluginDescriptorIndex<TestDescription> index = load();
+        File[] jars = {writeJar("a.jar", "A"), writeJar("b.jar", "B"), writeJar("c.jar", ""), writeJar("d.jar", "A")};
+
+        PluginDescriptorScan<TestDescription> scan = index.scan(jars);
+        assertThat(scan.getDescriptions()).containsOnlyKeys("A", "B");
+        assertThat(scan.getDescription("A").map(TestDescription::getFile)).contains(jars[0]);
+        assertThat(scan.getErrors()).containsOnlyKeys(jars[2]);
+        index.shutdown();
+    }
+
+    private PluginDescriptorIndex<TestDescription> load() {
+        return PluginDescriptorIndex.load(tempDir.resolve(".pluginDescriptorIndex.json"), this::parse, saves::add);
+    }
+
+    private File writeJar(String name, String pluginId) throws IOException {
+        return Files.write(tempDir.resolve(name), pluginId.getBytes(StandardCharsets.UTF_8)).toFile();
+    }
+
+    private Optional<TestDescription> parse(File file) {
+        parses.incrementAndGet();
+        String pluginId;
+        try {
+            pluginId = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        if (pluginId.isEmpty()) throw new InvalidPluginDescriptionException("No plugin id in " + file);
+        return Optional.of(new TestDescription(pluginId, file));
+    }
+
+    private static final class TestDescription implements ServerUtilsPluginDescription {
+
+        private final String id;
+        private final File file;
+
+        private TestDescription(String id, File file) {
+            this.id = id;
+            this.file = file;
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public String getName() {
+            return id;
+        }
+
+        @Override
+        public String getVersion() {
+            return "1.0.0";
+        }
+
+        @Override
+        public String getAuthor() {
+            return null;
+        }
+
+        @Override
+        public File getFile() {
+            return file;
+        }
+
+        @Override
+        public Set<String> getDependencies() {
+            return Collections.emptySet();
+        }
+    }
+}
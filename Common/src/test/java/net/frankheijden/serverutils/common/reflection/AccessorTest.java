@@ -0,0 +1,118 @@
+package net.frankheijden.serverutils.common.reflection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import dev.frankheijden.minecraftreflection.ClassObject;
+import dev.frankheijden.minecraftreflection.MinecraftReflection;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Locale;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+class AccessorTest {
+
+    @Test
+    void fieldAccessor() {
+        Target target = new SubTarget();
+        FieldAccessor accessor = FieldAccessor.of(SubTarget.class, "value");
+
+        assertThat(accessor.<String>get(target)).isEqualTo("value");
+        accessor.set(target, "changed");
+        assertThat(accessor.<String>get(target)).isEqualTo("changed");
+        assertThat(FieldAccessor.of(Target.class, "counter").<Integer>get(null)).isEqualTo(0);
+    }
+
+    @Test
+    void methodAccessor() {
+        Target target = new SubTarget();
+        MethodAccessor accessor = MethodAccessor.of(SubTarget.class, "add", int.class, int.class);
+
+        assertThat(accessor.<Integer>invoke(target, 1, 2)).isEqualTo(8);
+        assertThat(MethodAccessor.of(Target.class, "name").<String>invoke(null)).isEqualTo("target");
+    }
+
+    @Test
+    void unknownMembers() {
+        assertThatThrownBy(() -> FieldAccessor.of(Target.class, "unknown"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> MethodAccessor.of(Target.class, "add", int.class))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * Compares the accessors with by-name MinecraftReflection lookups and plain core reflection.
+     * Run with {@code -Dserverutils.benchmark=true}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "serverutils.benchmark", matches = "true")
+    void benchmark() throws ReflectiveOperationException {
+        Target target = new Target();
+        MinecraftReflection reflection = MinecraftReflection.of(Target.class);
+        FieldAccessor fieldAccessor = FieldAccessor.of(Target.class, "value");
+        MethodAccessor methodAccessor = MethodAccessor.of(Target.class, "add", int.class, int.class);
+        Field field = Target.class.getDeclaredField("value");
+        field.setAccessible(true);
+        Method method = Target.class.getDeclaredMethod("add", int.class, int.class);
+        method.setAccessible(true);
+
+        bench("field: MinecraftReflection", () -> reflection.get(target, "value"));
+        bench("field: core reflection", () -> {
+            try {
+                return field.get(target);
+            } catch (IllegalAccessException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        bench("field: FieldAccessor", () -> fieldAccessor.get(target));
+
+        bench("method: MinecraftReflection", () -> reflection.invoke(
+                target,
+                "add",
+                ClassObject.of(int.class, 1),
+                ClassObject.of(int.class, 2)
+        ));
+        bench("method: core reflection", () -> {
+            try {
+                return method.invoke(target, 1, 2);
+            } catch (ReflectiveOperationException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        bench("method: MethodAccessor", () -> methodAccessor.invoke(target, 1, 2));
+    }
+
+    private static void bench(String name, Supplier<Object> supplier) {
+        int iterations = 2_000_000;
+        Object sink = null;
+        for (int i = 0; i < iterations; i++) {
+            sink = supplier.get();
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink = supplier.get();
+        }
+        double nanosPerOp = (System.nanoTime() - start) / (double) iterations;
+        System.out.println(String.format(Locale.ROOT, "%-30s %8.2f ns/op (%s)", name, nanosPerOp, sink));
+    }
+
+    static class Target {
+
+        private static int counter = 0;
+
+        private String value = "value";
+
+        private int add(int a, int b) {
+            return a + b + value.length();
+        }
+
+        private static String name() {
+            return "target";
+        }
+    }
+
+    static class SubTarget extends Target {}
+}
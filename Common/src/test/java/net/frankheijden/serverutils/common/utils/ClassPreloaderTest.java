@@ -0,0 +1,31 @@
+package net.frankheijden.serverutils.common.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.params.provider.Arguments.of;
+
+import java.util.stream.Stream;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class ClassPreloaderTest {
+
+    @ParameterizedTest(name = "entry = {0}, expected = {1}")
+    @MethodSource("entryNameGenerator")
+    void toClassName(String entryName, String expected) {
+        assertThat(ClassPreloader.toClassName(entryName)).isEqualTo(expected);
+    }
+
+    private static Stream<Arguments> entryNameGenerator() {
+        return Stream.of(
+                of("a/b/Main.class", "a.b.Main"),
+                of("a/b/Main$Inner.class", "a.b.Main$Inner"),
+                of("Main.class", "Main"),
+                of("META-INF/versions/9/a/b/Main.class", null),
+                of("module-info.class", null),
+                of("a/b/package-info.class", null),
+                of("plugin.yml", null),
+                of("a/b/", null)
+        );
+    }
+}
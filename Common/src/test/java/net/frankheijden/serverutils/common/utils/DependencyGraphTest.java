@@ -0,0 +1,64 @@
+package net.frankheijden.serverutils.common.utils;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+import org.junit.jupiter.api.Test;
+
+class DependencyGraphTest {
+
+    @Test
+    void dependents() {
+        DependencyGraph graph = createGraph();
+
+        assertThat(graph.getDependents("A")).containsExactlyInAnyOrder("B", "C");
+        assertThat(graph.getDependents("C")).containsExactly("D");
+        assertThat(graph.getDependents("D")).isEmpty();
+        assertThat(graph.getDependents("Unknown")).isEmpty();
+    }
+
+    @Test
+    void transitiveClosures() {
+        DependencyGraph graph = createGraph();
+
+        assertThat(graph.getTransitiveDependents("A")).containsExactlyInAnyOrder("B", "C", "D");
+        assertThat(graph.getTransitiveDependencies("D")).containsExactlyInAnyOrder("A", "B", "C");
+    }
+
+    @Test
+    void removeAndReAdd() {
+        DependencyGraph graph = createGraph();
+
+        graph.remove("C");
+        assertThat(graph.size()).isEqualTo(3);
+        assertThat(graph.contains("C")).isFalse();
+        assertThat(graph.getDependents("A")).containsExactly("B");
+        assertThat(graph.getDependents("C")).containsExactly("D");
+        assertThat(graph.getTransitiveDependents("A")).containsExactly("B");
+
+        graph.add("C", Collections.singletonList("B"));
+        assertThat(graph.getDependents("A")).containsExactly("B");
+        assertThat(graph.getTransitiveDependents("A")).containsExactlyInAnyOrder("B", "C", "D");
+    }
+
+    @Test
+    void absentDependency() {
+        DependencyGraph graph = new DependencyGraph();
+        graph.add("A", Collections.singletonList("Missing"));
+
+        assertThat(graph.size()).isEqualTo(1);
+        assertThat(graph.contains("Missing")).isFalse();
+        assertThat(graph.getDependents("Missing")).containsExactly("A");
+        assertThat(graph.getTransitiveDependencies("A")).isEmpty();
+    }
+
+    private static DependencyGraph createGraph() {
+        DependencyGraph graph = new DependencyGraph();
+        graph.add("A", Collections.emptyList());
+        graph.add("B", Collections.singletonList("A"));
+        graph.add("C", asList("A", "B"));
+        graph.add("D", Collections.singletonList("C"));
+        return graph;
+    }
+}
@@ -5,12 +5,14 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 import static org.junit.jupiter.params.provider.Arguments.of;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -34,6 +36,63 @@ class DependencyUtilsTest {
         assertThatIllegalStateException().isThrownBy(() -> DependencyUtils.determineOrder(dependencyMap));
     }
 
+    @Test
+    void determineOrderDeepChain() {
+        int depth = 100_000;
+        Map<Integer, Set<Integer>> dependencyMap = new HashMap<>();
+        for (int i = 1; i < depth; i++) {
+            dependencyMap.put(i, Collections.singleton(i - 1));
+        }
+
+        List<Integer> order = DependencyUtils.determineOrder(dependencyMap);
+        assertThat(order).hasSize(depth);
+        for (int i = 0; i < depth; i++) {
+            assertThat(order.get(i)).isEqualTo(i);
+        }
+    }
+
+    @Test
+    void sortReportsAllCycles() {
+        Map<String, Set<String>> dependencyMap = mapOf(
+                new Pair<>("A", asSet("B")),
+                new Pair<>("B", asSet("A")),
+                new Pair<>("C", asSet("D")),
+                new Pair<>("D", asSet("C")),
+                new Pair<>("E", asSet("A")),
+                new Pair<>("F", asSet("F")),
+                new Pair<>("G", asSet())
+        );
+
+        DependencyUtils.SortResult<String> result = DependencyUtils.sort(dependencyMap);
+        assertThat(result.getOrder()).containsExactly("G");
+        assertThat(result.getCycles()).containsExactlyInAnyOrder(
+                asList("A", "B"),
+                asList("C", "D"),
+                Collections.singletonList("F")
+        );
+        assertThatIllegalStateException()
+                .isThrownBy(() -> DependencyUtils.determineOrder(dependencyMap))
+                .withMessageContaining("A -> B -> A")
+                .withMessageContaining("C -> D -> C")
+                .withMessageContaining("F -> F");
+    }
+
+    @Test
+    void sortLevels() {
+        Map<String, Set<String>> dependencyMap = mapOf(
+                new Pair<>("A", asSet()),
+                new Pair<>("B", asSet("A")),
+                new Pair<>("C", asSet()),
+                new Pair<>("D", asSet("B", "C"))
+        );
+
+        assertThat(DependencyUtils.sort(dependencyMap).getLevels()).containsExactly(
+                asList("A", "C"),
+                Collections.singletonList("B"),
+                Collections.singletonList("D")
+        );
+    }
+
     private static Stream<Arguments> dependencyGenerator() {
         return Stream.of(
                 of(
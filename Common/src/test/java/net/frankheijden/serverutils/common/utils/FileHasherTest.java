@@ -0,0 +1,39 @@
+package net.frankheijden.serverutils.common.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.zip.CRC32;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileHasherTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void checksum() throws IOException {
+        // Larger than the buffer, such that it is read in multiple passes
+        byte[] data = new byte[200 * 1024 + 7];
+        new Random(42).nextBytes(data);
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, data.length);
+
+        assertThat(FileHasher.checksum(Files.write(tempDir.resolve("plugin.jar"), data))).isEqualTo(crc.getValue());
+    }
+
+    @Test
+    void hash() throws IOException {
+        Path file = Files.write(tempDir.resolve("plugin.jar"), new byte[] {1, 2, 3});
+        String hash = FileHasher.hash(file);
+        assertThat(FileHasher.hash(file)).isNotNull().isEqualTo(hash);
+
+        Files.write(file, new byte[] {1, 2, 4});
+        assertThat(FileHasher.hash(file)).isNotEqualTo(hash);
+        assertThat(FileHasher.hash(tempDir.resolve("missing.jar"))).isNull();
+    }
+}
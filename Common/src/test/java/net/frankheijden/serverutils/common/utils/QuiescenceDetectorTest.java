@@ -0,0 +1,48 @@
+package net.frankheijden.serverutils.common.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.ZipOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class QuiescenceDetectorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void quiescentAfterWindow() throws IOException, InterruptedException {
+        File jar = writeJar().toFile();
+        QuiescenceDetector detector = new QuiescenceDetector(50);
+        assertThat(detector.check(jar)).isPositive();
+
+        Thread.sleep(60);
+        assertThat(detector.check(jar)).isZero();
+
+        detector.touch();
+        assertThat(detector.check(jar)).isPositive();
+    }
+
+    @Test
+    void incompleteJarIsNeverQuiescent() throws IOException {
+        Path jar = writeJar();
+        byte[] data = Files.readAllBytes(jar);
+        Files.write(jar, Arrays.copyOf(data, data.length - 1));
+
+        assertThat(ZipCentralDirectory.isComplete(jar)).isFalse();
+        assertThat(new QuiescenceDetector(0).check(jar.toFile())).isPositive();
+        assertThat(new QuiescenceDetector(0).check(tempDir.resolve("missing.jar").toFile())).isPositive();
+    }
+
+    private Path writeJar() throws IOException {
+        Path jar = tempDir.resolve("plugin.jar");
+        new ZipOutputStream(Files.newOutputStream(jar)).close();
+        return jar;
+    }
+}
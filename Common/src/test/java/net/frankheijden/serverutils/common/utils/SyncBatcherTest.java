@@ -0,0 +1,76 @@
+package net.frankheijden.serverutils.common.utils;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class SyncBatcherTest {
+
+    private final LifecycleTimings timings = new LifecycleTimings(1);
+    private final List<Runnable> scheduled = new ArrayList<>();
+    private final List<Set<String>> flushes = new ArrayList<>();
+    private final SyncBatcher<String> batcher = new SyncBatcher<>(
+            timings,
+            scheduled::add,
+            (changed, operation, full) -> flushes.add(changed)
+    );
+
+    @Test
+    void reloadFlushesOnce() {
+        LifecycleTimings.Operation operation = timings.begin("reload");
+        timings.attach(operation, () -> {
+            batcher.request(Collections.singletonList("disabled"));
+            batcher.request(Collections.singletonList("enabled"));
+            return null;
+        });
+
+        assertThat(flushes).isEmpty();
+        assertThat(scheduled).isEmpty();
+        assertThat(batcher.isPending()).isTrue();
+
+        timings.finish(operation);
+        assertThat(flushes).containsExactly(new HashSet<>(asList("disabled", "enabled")));
+        assertThat(batcher.isPending()).isFalse();
+    }
+
+    @Test
+    void requestOutsideOperationIsScheduled() {
+        batcher.request(Collections.singletonList("a"));
+        batcher.request(Collections.singletonList("b"));
+
+        assertThat(scheduled).hasSize(1);
+        assertThat(flushes).isEmpty();
+
+        scheduled.get(0).run();
+        assertThat(flushes).containsExactly(new HashSet<>(asList("a", "b")));
+    }
+
+    @Test
+    void flushNowSupersedesScheduledFlush() {
+        batcher.request(Collections.singletonList("a"));
+
+        assertThat(batcher.flushNow(true)).isTrue();
+        scheduled.get(0).run();
+        assertThat(flushes).hasSize(1);
+    }
+
+    @Test
+    void flushNowWithoutRequestsIsNoop() {
+        assertThat(batcher.flushNow(true)).isFalse();
+        assertThat(flushes).isEmpty();
+    }
+
+    @Test
+    void flushNowMergesGivenValues() {
+        batcher.request(Collections.singletonList("a"));
+
+        assertThat(batcher.flushNow(Collections.singletonList("b"), true)).isTrue();
+        assertThat(flushes).containsExactly(new HashSet<>(asList("a", "b")));
+    }
+}
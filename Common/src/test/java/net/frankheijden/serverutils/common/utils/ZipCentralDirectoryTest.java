@@ -0,0 +1,70 @@
+package net.frankheijden.serverutils.common.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ZipCentralDirectoryTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void readEntries() throws IOException {
+        Path jar = writeJar(null, 1);
+
+        ZipCentralDirectory directory = ZipCentralDirectory.read(jar);
+        assertThat(directory.getEntries()).hasSize(2);
+        assertThat(directory.readEntry(directory.getEntry("plugin.yml").get())).isEqualTo(bytes("name: Test"));
+        assertThat(ZipCentralDirectory.readFirstEntry(jar, "bungee.yml", "plugin.yml").get().getKey())
+                .isEqualTo("plugin.yml");
+        assertThat(ZipCentralDirectory.readFirstEntry(jar, "bungee.yml")).isEmpty();
+    }
+
+    @Test
+    void readZip64ArchiveWithComment() throws IOException {
+        // More than 65535 entries makes java.util.zip write a zip64 end of central directory record
+        ZipCentralDirectory directory = ZipCentralDirectory.read(writeJar("comment", 70_000));
+        assertThat(directory.getEntries()).hasSize(70_001);
+        assertThat(directory.readEntry(directory.getEntry("plugin.yml").get())).isEqualTo(bytes("name: Test"));
+    }
+
+    @ParameterizedTest(name = "truncated by {0} bytes")
+    @ValueSource(ints = {1, 22, 100})
+    void readTruncatedArchive(int bytes) throws IOException {
+        Path jar = writeJar(null, 1);
+        byte[] data = Files.readAllBytes(jar);
+        Files.write(jar, Arrays.copyOf(data, data.length - bytes));
+
+        assertThatThrownBy(() -> ZipCentralDirectory.read(jar)).isInstanceOf(IOException.class);
+    }
+
+    private Path writeJar(String comment, int classes) throws IOException {
+        Path jar = tempDir.resolve("plugin.jar");
+        try (OutputStream out = Files.newOutputStream(jar); ZipOutputStream zip = new ZipOutputStream(out)) {
+            zip.setComment(comment);
+            for (int i = 0; i < classes; i++) {
+                zip.putNextEntry(new ZipEntry("Class" + i + ".class"));
+            }
+            zip.putNextEntry(new ZipEntry("plugin.yml"));
+            zip.write(bytes("name: Test"));
+        }
+        return jar;
+    }
+
+    private static byte[] bytes(String string) {
+        return string.getBytes(StandardCharsets.UTF_8);
+    }
+}
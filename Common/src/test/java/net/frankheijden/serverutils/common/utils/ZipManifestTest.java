@@ -0,0 +1,50 @@
+package net.frankheijden.serverutils.common.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ZipManifestTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void diffIgnoresRegeneratedMetadata() throws IOException {
+        ZipManifest previous = read("META-INF/MANIFEST.MF", "Build-Time: 1", "a/Main.class", "main");
+        ZipManifest current = read("META-INF/MANIFEST.MF", "Build-Time: 2", "a/Main.class", "main");
+
+        assertThat(previous.diff(current).isEmpty()).isTrue();
+    }
+
+    @Test
+    void diff() throws IOException {
+        ZipManifest previous = read("a/Kept.class", "kept", "a/Changed.class", "old", "a/Removed.class", "removed");
+        ZipManifest current = read("a/Kept.class", "kept", "a/Changed.class", "new", "a/Added.class", "added");
+
+        ZipManifest.Diff diff = previous.diff(current);
+        assertThat(diff.getAdded()).containsExactly("a/Added.class");
+        assertThat(diff.getRemoved()).containsExactly("a/Removed.class");
+        assertThat(diff.getChanged()).containsExactly("a/Changed.class");
+        assertThat(diff.format(2)).containsExactly("+a/Added.class", "-a/Removed.class");
+    }
+
+    private ZipManifest read(String... entries) throws IOException {
+        Path jar = Files.createTempFile(tempDir, "plugin", ".jar");
+        try (OutputStream out = Files.newOutputStream(jar); ZipOutputStream zip = new ZipOutputStream(out)) {
+            for (int i = 0; i < entries.length; i += 2) {
+                zip.putNextEntry(new ZipEntry(entries[i]));
+                zip.write(entries[i + 1].getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return ZipManifest.read(jar);
+    }
+}
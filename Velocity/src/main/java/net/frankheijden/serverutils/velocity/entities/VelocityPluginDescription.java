@@ -4,6 +4,7 @@ import com.velocitypowered.api.plugin.PluginDescription;
 import com.velocitypowered.api.plugin.meta.PluginDependency;
 import java.io.File;
 import java.nio.file.Path;
+import java.util.Collections;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -28,9 +29,9 @@ public class VelocityPluginDescription implements ServerUtilsPluginDescription {
 
         this.file = sourceOptional.get().toFile();
         this.author = String.join(", ", description.getAuthors());
-        this.dependencies = description.getDependencies().stream()
+        this.dependencies = Collections.unmodifiableSet(description.getDependencies().stream()
                 .map(PluginDependency::getId)
-                .collect(Collectors.toSet());
+                .collect(Collectors.toSet()));
     }
 
     @Override
@@ -66,4 +67,16 @@ public class VelocityPluginDescription implements ServerUtilsPluginDescription {
     public PluginDescription getDescription() {
         return description;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return getId().equals(((VelocityPluginDescription) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return getId().hashCode();
+    }
 }
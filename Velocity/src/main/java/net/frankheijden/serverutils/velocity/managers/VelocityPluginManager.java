@@ -22,17 +22,25 @@ import java.io.Closeable;
 import java.io.File;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Set;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import net.frankheijden.serverutils.common.entities.LoadPlan;
 import net.frankheijden.serverutils.common.entities.exceptions.InvalidPluginDescriptionException;
 import net.frankheijden.serverutils.common.entities.results.CloseablePluginResults;
 import net.frankheijden.serverutils.common.entities.results.PluginResults;
 import net.frankheijden.serverutils.common.entities.results.Result;
 import net.frankheijden.serverutils.common.events.PluginEvent;
 import net.frankheijden.serverutils.common.managers.AbstractPluginManager;
+import net.frankheijden.serverutils.common.utils.LifecycleTimings;
+import net.frankheijden.serverutils.common.utils.PluginFootprints;
 import net.frankheijden.serverutils.velocity.entities.VelocityPluginDescription;
 import net.frankheijden.serverutils.velocity.events.VelocityPluginDisableEvent;
 import net.frankheijden.serverutils.velocity.events.VelocityPluginEnableEvent;
@@ -53,6 +61,7 @@ public class VelocityPluginManager extends AbstractPluginManager<PluginContainer
     private final ProxyServer proxy;
     private final Logger logger;
     private final VelocityPluginCommandManager pluginCommandManager;
+    private final Map<Path, Object> javaPluginLoaders;
 
     /**
      * Constructs a new VelocityPluginManager.
@@ -62,56 +71,127 @@ public class VelocityPluginManager extends AbstractPluginManager<PluginContainer
         this.proxy = proxy;
         this.logger = logger;
         this.pluginCommandManager = pluginCommandManager;
+        this.javaPluginLoaders = new ConcurrentHashMap<>();
     }
 
     public static VelocityPluginManager get() {
         return instance;
     }
 
+    /**
+     * Retrieves the (cached) JavaPluginLoader for the given base directory.
+     */
+    private Object getJavaPluginLoader(Path baseDirectory) {
+        if (baseDirectory == null) return RJavaPluginLoader.newInstance(proxy, null);
+        return javaPluginLoaders.computeIfAbsent(baseDirectory, dir -> RJavaPluginLoader.newInstance(proxy, dir));
+    }
+
     @Override
     public PluginResults<PluginContainer> loadPluginDescriptions(List<VelocityPluginDescription> descriptions) {
+        return loadPluginDescriptions(LoadPlan.sequential(descriptions));
+    }
+
+    /**
+     * Loads the descriptions of the given plan.
+     * Plugin classloaders of a wave are created and their main classes are loaded concurrently.
+     * Once all waves are loaded, load events are fired and results are added in plan order.
+     */
+    @Override
+    protected PluginResults<PluginContainer> loadPluginDescriptions(LoadPlan<VelocityPluginDescription> loadPlan) {
         PluginResults<PluginContainer> loadResults = new PluginResults<>();
+        LifecycleTimings timings = getTimings();
+        LifecycleTimings.Operation operation = timings.getCurrentOperation();
+        Map<String, PluginContainer> containers = new HashMap<>();
 
+        // Descriptions are resolved through the descriptor index, hence wrap the candidate of the current jar
+        List<VelocityPluginDescription> descriptions = loadPlan.getOrder();
         for (VelocityPluginDescription description : descriptions) {
-            Path source = description.getFile().toPath();
-            Path baseDirectory = source.getParent();
-
-            Object javaPluginLoader = RJavaPluginLoader.newInstance(proxy, baseDirectory);
-            PluginDescription candidate = RJavaPluginLoader.loadPluginDescription(javaPluginLoader, source);
+            PluginDescription candidate = description.getDescription();
+            Optional<PluginDependency> missingDependency = findMissingDependency(candidate, descriptions);
+            if (missingDependency.isPresent()) {
+                String dependencyId = missingDependency.get().getId();
+                logger.error("Can't load plugin {} due to missing dependency {}", candidate.getId(), dependencyId);
+                return loadResults.addResult(description.getId(), Result.UNKNOWN_DEPENDENCY,
+                        "dependency", dependencyId
+                );
+            }
+        }
 
-            dependencyCheck:
-            for (PluginDependency dependency : candidate.getDependencies()) {
-                String pluginId = dependency.getId();
-                for (VelocityPluginDescription desc : descriptions) {
-                    if (desc.getId().equals(pluginId)) continue dependencyCheck;
-                }
+        for (List<VelocityPluginDescription> wave : loadPlan.getWaves()) {
+            List<PluginDescription> candidates = new ArrayList<>(wave.size());
+            for (VelocityPluginDescription description : wave) {
+                candidates.add(description.getDescription());
+            }
 
-                if (!dependency.isOptional() && !proxy.getPluginManager().isLoaded(dependency.getId())) {
-                    logger.error(
-                            "Can't load plugin {} due to missing dependency {}",
+            Stream<PluginDescription> candidateStream = candidates.size() > 1
+                    ? candidates.parallelStream()
+                    : candidates.stream();
+            List<PluginDescription> realPlugins = candidateStream
+                    .map(candidate -> timings.attach(operation, () -> timings.time(
                             candidate.getId(),
-                            dependency.getId()
-                    );
-                    return loadResults.addResult(description.getId(), Result.UNKNOWN_DEPENDENCY,
-                            "dependency", dependency.getId()
-                    );
-                }
+                            "load",
+                            () -> loadCandidate(candidate)
+                    )))
+                    .collect(Collectors.toList());
+
+            for (int i = 0; i < wave.size(); i++) {
+                containers.put(wave.get(i).getId(), RVelocityPluginContainer.newInstance(realPlugins.get(i)));
             }
+        }
 
-            PluginDescription realPlugin = RJavaPluginLoader.loadPlugin(javaPluginLoader, candidate);
-            PluginContainer container = RVelocityPluginContainer.newInstance(realPlugin);
+        for (VelocityPluginDescription description : descriptions) {
+            PluginContainer container = containers.get(description.getId());
             proxy.getEventManager().fire(new VelocityPluginLoadEvent(container, PluginEvent.Stage.PRE));
             proxy.getEventManager().fire(new VelocityPluginLoadEvent(container, PluginEvent.Stage.POST));
 
             loadResults.addResult(description.getId(), container);
         }
-
         return loadResults;
     }
 
+    /**
+     * Loads the main class of a candidate. The metaspace of a plugin which is loaded in parallel with other plugins of
+     * its wave can't be attributed, and is therefore unknown.
+     */
+    private PluginDescription loadCandidate(PluginDescription candidate) {
+        PluginFootprints.LoadSample sample = getFootprints().beginLoad();
+        PluginDescription realPlugin = null;
+        try {
+            realPlugin = RJavaPluginLoader.loadPlugin(
+                    getJavaPluginLoader(candidate.getSource().map(Path::getParent).orElse(null)),
+                    candidate
+            );
+            return realPlugin;
+        } finally {
+            getFootprints().endLoad(
+                    sample,
+                    realPlugin == null ? Collections.emptySet() : Collections.singleton(candidate.getId())
+            );
+        }
+    }
+
+    private Optional<PluginDependency> findMissingDependency(
+            PluginDescription candidate,
+            List<VelocityPluginDescription> descriptions
+    ) {
+        dependencyCheck:
+        for (PluginDependency dependency : candidate.getDependencies()) {
+            String pluginId = dependency.getId();
+            for (VelocityPluginDescription desc : descriptions) {
+                if (desc.getId().equals(pluginId)) continue dependencyCheck;
+            }
+
+            if (!dependency.isOptional() && !proxy.getPluginManager().isLoaded(dependency.getId())) {
+                return Optional.of(dependency);
+            }
+        }
+        return Optional.empty();
+    }
+
     @Override
     public PluginResults<PluginContainer> enableOrderedPlugins(List<PluginContainer> containers) {
         PluginResults<PluginContainer> enableResults = new PluginResults<>();
+        LifecycleTimings timings = getTimings();
 
         List<Object> pluginInstances = new ArrayList<>(containers.size());
         for (PluginContainer container : containers) {
@@ -121,8 +201,7 @@ public class VelocityPluginManager extends AbstractPluginManager<PluginContainer
                 return enableResults.addResult(pluginId, Result.ALREADY_ENABLED);
             }
 
-            Object javaPluginLoader = RJavaPluginLoader.newInstance(
-                    proxy,
+            Object javaPluginLoader = getJavaPluginLoader(
                     container.getDescription().getSource().map(Path::getParent).orElse(null)
             );
             PluginDescription realPlugin = container.getDescription();
@@ -149,7 +228,11 @@ public class VelocityPluginManager extends AbstractPluginManager<PluginContainer
             };
 
             try {
-                RJavaPluginLoader.createPlugin(javaPluginLoader, container, module, commonModule);
+                timings.time(
+                        pluginId,
+                        "create-plugin",
+                        () -> RJavaPluginLoader.createPlugin(javaPluginLoader, container, module, commonModule)
+                );
             } catch (Exception ex) {
                 logger.error(
                         String.format("Can't create plugin %s", container.getDescription().getId()),
@@ -174,11 +257,11 @@ public class VelocityPluginManager extends AbstractPluginManager<PluginContainer
             }
         }
 
-        RVelocityEventManager.fireForPlugins(
+        timings.time(LifecycleTimings.ALL_PLUGINS, "initialize-event", () -> RVelocityEventManager.fireForPlugins(
                 proxy.getEventManager(),
                 new ProxyInitializeEvent(),
                 pluginInstances
-        ).join();
+        ).join());
 
         ConsoleCommandSource console = proxy.getConsoleCommandSource();
         PermissionsSetupEvent event = new PermissionsSetupEvent(
@@ -219,6 +302,7 @@ public class VelocityPluginManager extends AbstractPluginManager<PluginContainer
     @Override
     public PluginResults<PluginContainer> disableOrderedPlugins(List<PluginContainer> containers) {
         PluginResults<PluginContainer> disableResults = new PluginResults<>();
+        LifecycleTimings timings = getTimings();
 
         List<Object> pluginInstances = new ArrayList<>(containers.size());
         for (PluginContainer container : containers) {
@@ -232,11 +316,11 @@ public class VelocityPluginManager extends AbstractPluginManager<PluginContainer
             pluginInstances.add(pluginInstance);
         }
 
-        RVelocityEventManager.fireForPlugins(
+        timings.time(LifecycleTimings.ALL_PLUGINS, "shutdown-event", () -> RVelocityEventManager.fireForPlugins(
                 proxy.getEventManager(),
                 new ProxyShutdownEvent(),
                 pluginInstances
-        );
+        ));
 
         for (PluginContainer container : containers) {
             proxy.getEventManager().fire(new VelocityPluginDisableEvent(container, PluginEvent.Stage.POST));
@@ -249,6 +333,7 @@ public class VelocityPluginManager extends AbstractPluginManager<PluginContainer
     @Override
     public CloseablePluginResults<PluginContainer> unloadOrderedPlugins(List<PluginContainer> containers) {
         CloseablePluginResults<PluginContainer> unloadResults = new CloseablePluginResults<>();
+        LifecycleTimings timings = getTimings();
 
         for (PluginContainer container : containers) {
             proxy.getEventManager().fire(new VelocityPluginUnloadEvent(container, PluginEvent.Stage.PRE));
@@ -260,15 +345,19 @@ public class VelocityPluginManager extends AbstractPluginManager<PluginContainer
 
             Object pluginInstance = pluginInstanceOptional.get();
 
-            proxy.getEventManager().unregisterListeners(pluginInstance);
-            for (ScheduledTask task : RVelocityScheduler.getTasksByPlugin(proxy.getScheduler())
-                    .removeAll(pluginInstance)) {
-                task.cancel();
-            }
+            timings.time(pluginId, "unregister-listeners", () -> {
+                proxy.getEventManager().unregisterListeners(pluginInstance);
+                for (ScheduledTask task : RVelocityScheduler.getTasksByPlugin(proxy.getScheduler())
+                        .removeAll(pluginInstance)) {
+                    task.cancel();
+                }
+            });
 
-            for (String alias : pluginCommandManager.getPluginCommands().removeAll(pluginId)) {
-                proxy.getCommandManager().unregister(alias);
-            }
+            timings.time(pluginId, "unregister-commands", () -> {
+                for (String alias : pluginCommandManager.getPluginCommands().removeAll(pluginId)) {
+                    proxy.getCommandManager().unregister(alias);
+                }
+            });
 
             RVelocityPluginManager.getPlugins(proxy.getPluginManager()).remove(pluginId);
             RVelocityPluginManager.getPluginInstances(proxy.getPluginManager()).remove(pluginInstance);
@@ -310,39 +399,30 @@ public class VelocityPluginManager extends AbstractPluginManager<PluginContainer
                 .orElse(null);
     }
 
-    @Override
-    public Optional<File> getPluginFile(String pluginName) {
-        Object javaPluginLoader = RJavaPluginLoader.newInstance(instance.proxy, getPluginsFolder().toPath());
-
-        for (File file : getPluginJars()) {
-            PluginDescription desc = RJavaPluginLoader.loadPluginDescription(javaPluginLoader, file.toPath());
-
-            if (desc.getId().equals(pluginName)) {
-                return Optional.of(file);
-            }
-        }
-        return Optional.empty();
-    }
-
     @Override
     public Optional<PluginContainer> getPlugin(String pluginName) {
         return proxy.getPluginManager().getPlugin(pluginName);
     }
 
     @Override
-    public VelocityPluginDescription getLoadedPluginDescription(PluginContainer plugin) {
+    protected VelocityPluginDescription createLoadedPluginDescription(PluginContainer plugin) {
         return new VelocityPluginDescription(plugin.getDescription());
     }
 
+    /**
+     * Parses the description of the given jar through Velocity's JavaPluginLoader.
+     * Unlike on Bukkit and BungeeCord, the velocity-plugin.json is not read from the central directory: Velocity only
+     * loads plugins from its own candidate descriptions, which the loader creates while reading the jar itself.
+     */
     @Override
-    public Optional<VelocityPluginDescription> getPluginDescription(
+    protected Optional<VelocityPluginDescription> parsePluginDescription(
             File file
     ) throws InvalidPluginDescriptionException {
         Path source = file.toPath();
         Path baseDirectory = source.getParent();
 
         try {
-            Object javaPluginLoader = RJavaPluginLoader.newInstance(proxy, baseDirectory);
+            Object javaPluginLoader = getJavaPluginLoader(baseDirectory);
             PluginDescription candidate = RJavaPluginLoader.loadPluginDescription(javaPluginLoader, source);
             return Optional.of(new VelocityPluginDescription(candidate));
         } catch (Exception ex) {
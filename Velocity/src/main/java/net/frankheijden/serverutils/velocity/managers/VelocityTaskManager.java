@@ -27,6 +27,11 @@ public class VelocityTaskManager extends AbstractTaskManager<ScheduledTask> {
                 .schedule();
     }
 
+    @Override
+    public ScheduledTask runTaskLaterAsynchronously(Runnable runnable, long delay) {
+        return runTaskLater(runnable, delay);
+    }
+
     @Override
     protected ScheduledTask runTaskAsynchronouslyImpl(Runnable runnable) {
         return plugin.getProxy().getScheduler()
@@ -5,19 +5,38 @@ import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.velocitypowered.api.event.EventHandler;
 import com.velocitypowered.api.event.EventManager;
 import com.velocitypowered.api.plugin.PluginContainer;
-import dev.frankheijden.minecraftreflection.ClassObject;
 import dev.frankheijden.minecraftreflection.MinecraftReflection;
 import java.lang.reflect.Array;
+import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
+import net.frankheijden.serverutils.common.reflection.FieldAccessor;
+import net.frankheijden.serverutils.common.reflection.MethodAccessor;
 
 public class RVelocityEventManager {
 
     private static final MinecraftReflection reflection = MinecraftReflection
             .of("com.velocitypowered.proxy.event.VelocityEventManager");
+    private static final FieldAccessor handlersByTypeField = FieldAccessor
+            .of(reflection.getClazz(), "handlersByType");
+    private static final FieldAccessor handlerComparatorField = FieldAccessor
+            .of(reflection.getClazz(), "handlerComparator");
+    private static final MethodAccessor registerInternallyMethod = MethodAccessor
+            .of(reflection.getClazz(), "registerInternally", PluginContainer.class, Object.class);
+    private static final Object registrationsEmptyArray = Array
+            .newInstance(RHandlerRegistration.reflection.getClazz(), 0);
+    private static final MethodAccessor fireMethod = MethodAccessor.of(
+            reflection.getClazz(),
+            "fire",
+            CompletableFuture.class,
+            Object.class,
+            int.class,
+            boolean.class,
+            registrationsEmptyArray.getClass()
+    );
 
     private static final Executor asyncExecutor = Executors
             .newFixedThreadPool(1, new ThreadFactoryBuilder()
@@ -27,7 +46,7 @@ public class RVelocityEventManager {
 
     @SuppressWarnings("rawtypes")
     public static Multimap getHandlersByType(EventManager manager) {
-        return reflection.get(manager, "handlersByType");
+        return handlersByTypeField.get(manager);
     }
 
     /**
@@ -41,7 +60,7 @@ public class RVelocityEventManager {
     ) {
         return (List<Object>) getHandlersByType(manager).get(eventClass).stream()
                 .filter(r -> plugins.contains(RHandlerRegistration.getPlugin(r).getInstance().orElse(null)))
-                .sorted(reflection.get(manager, "handlerComparator"))
+                .sorted(handlerComparatorField.<Comparator<Object>>get(manager))
                 .collect(Collectors.toList());
     }
 
@@ -49,12 +68,7 @@ public class RVelocityEventManager {
      * Registers the listener for a given plugin.
      */
     public static void registerInternally(EventManager manager, PluginContainer container, Object listener) {
-        reflection.invoke(
-                manager,
-                "registerInternally",
-                ClassObject.of(PluginContainer.class, container),
-                ClassObject.of(Object.class, listener)
-        );
+        registerInternallyMethod.invoke(manager, container, listener);
     }
 
     /**
@@ -68,17 +82,13 @@ public class RVelocityEventManager {
         List<Object> registrations = getRegistrationsByPlugins(manager, pluginInstances, event.getClass());
         CompletableFuture<E> future = new CompletableFuture<>();
 
-        Object registrationsEmptyArray = Array.newInstance(RHandlerRegistration.reflection.getClazz(), 0);
-        Class<?> registrationsArrayClass = registrationsEmptyArray.getClass();
-
-        asyncExecutor.execute(() -> reflection.invoke(
+        asyncExecutor.execute(() -> fireMethod.invoke(
                 manager,
-                "fire",
-                ClassObject.of(CompletableFuture.class, future),
-                ClassObject.of(Object.class, event),
-                ClassObject.of(int.class, 0),
-                ClassObject.of(boolean.class, true),
-                ClassObject.of(registrationsArrayClass, registrations.toArray((Object[]) registrationsEmptyArray))
+                future,
+                event,
+                0,
+                true,
+                registrations.toArray((Object[]) registrationsEmptyArray)
         ));
 
         return future;
@@ -88,15 +98,17 @@ public class RVelocityEventManager {
 
         private static final MinecraftReflection reflection = MinecraftReflection
                 .of("com.velocitypowered.proxy.event.VelocityEventManager$HandlerRegistration");
+        private static final FieldAccessor pluginField = FieldAccessor.of(reflection.getClazz(), "plugin");
+        private static final FieldAccessor handlerField = FieldAccessor.of(reflection.getClazz(), "handler");
 
         private RHandlerRegistration() {}
 
         public static PluginContainer getPlugin(Object registration) {
-            return reflection.get(registration, "plugin");
+            return pluginField.get(registration);
         }
 
         public static EventHandler<Object> getEventHandler(Object registration) {
-            return reflection.get(registration, "handler");
+            return handlerField.get(registration);
         }
     }
 }
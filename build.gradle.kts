@@ -68,6 +68,7 @@ subprojects {
 
         test {
             useJUnitPlatform()
+            systemProperty("serverutils.benchmark", System.getProperty("serverutils.benchmark", "false"))
         }
     }
 